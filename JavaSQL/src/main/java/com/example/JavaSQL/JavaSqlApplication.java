@@ -2,12 +2,16 @@ package com.example.JavaSQL;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class JavaSqlApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(JavaSqlApplication.class, args);
+		SpringApplication application = new SpringApplication(JavaSqlApplication.class);
+		//records startup steps for StartupTimingReport and the actuator startup endpoint
+		application.setApplicationStartup(new BufferingApplicationStartup(10_000));
+		application.run(args);
 	}
 
 }
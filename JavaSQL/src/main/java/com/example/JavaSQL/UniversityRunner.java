@@ -1,9 +1,19 @@
 package com.example.JavaSQL;
 
+import com.example.JavaSQL.cache.ReferenceDataCache;
+import com.example.JavaSQL.model.projection.CountryStudentsProfessors;
+import com.example.JavaSQL.model.projection.PersonByCountry;
 import com.example.JavaSQL.repositories.*;
+import com.example.JavaSQL.services.CountryStatsService;
+import com.example.JavaSQL.services.DashboardReports;
+import com.example.JavaSQL.services.PersonIngestionService;
+import com.example.JavaSQL.services.PersonIngestionService.PersonIngest;
+import com.example.JavaSQL.sharding.ShardedPersonStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.format.datetime.standard.TemporalAccessorParser;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
@@ -12,74 +22,90 @@ import java.time.ZoneOffset;
 import java.time.temporal.TemporalAccessor;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 @Component
+@Profile("!prod")  //demo data, not for the migrated prod schema
+@ConditionalOnProperty(name = "university.generator.enabled", havingValue = "false", matchIfMissing = true)
 @RequiredArgsConstructor
 public class UniversityRunner implements CommandLineRunner {
+	//the init* rows below, for the shards: ingestion routes every person to its country's shard
+	private static final List<PersonIngest> SHARDED_SEED = List.of(
+			new PersonIngest("Kowalski", "Poland", "Kraków", "Karmelicka 2", 234223, 121212),
+			new PersonIngest("Nowak", "Poland", "Kraków", "Karmelicka 2", 22222, null),
+			new PersonIngest("Smesny", "Poland", "Warszawa", "Przemieścia 5", 333333, null),
+			new PersonIngest("Nsmesny", "Germany", "Berlin", "Schemteling 10", 444444, null),
+			new PersonIngest("Inny", "England", "Londyn", "Big 10", null, 555555),
+			new PersonIngest("Beziczego", "England", "Londyn", "Big 10", null, null));
+
 	private final CountryRepo countryRepo;
 	private final AddressRepo addressRepo;
 	private final PersonRepo personRepo;
 	private final ProfessorRepo professorRepo;
 	private final StudentRepo studentRepo;
+	private final CountryStatsService countryStatsService;
+	private final ReferenceDataCache referenceDataCache;
+	private final DashboardReports dashboardReports;
+	private final PersonIngestionService personIngestionService;
+	private final Optional<ShardedPersonStore> shardedPersonStore;
 
 	@Override
 	public void run(String... args) throws Exception {
-		countryRepo.initialCountries();
-		addressRepo.initAddress();
-		personRepo.initPerson();
-		studentRepo.initStudent();
-		professorRepo.initProfessor();
+		if (shardedPersonStore.isPresent()) {
+			personIngestionService.ingest(SHARDED_SEED);
+		} else {
+			countryRepo.initialCountries();
+			addressRepo.initAddress();
+			personRepo.initPerson();
+			studentRepo.initStudent();
+			professorRepo.initProfessor();
+			//native inserts don't go through the entity listeners
+			referenceDataCache.invalidate();
+		}
 
-		System.out.println("*********************************************************************************");
+		if(!countryStatsService.isIncremental() || Arrays.asList(args).contains("--rebuild-country-stats")) {
+			countryStatsService.rebuild();
+		}
 
-		List<Object[]> values = personRepo.students_and_professors_grouped_by_country();
-		for(Object[] row : values) {
-			Long students = (Long) row[0];
-			Long professors = (Long) row[1];
-			String country = (String) row[2];
+		Instant from = LocalDate.parse("2026-01-01").atStartOfDay().toInstant(ZoneOffset.UTC);
+		Instant to = LocalDate.parse("2026-01-31").atStartOfDay().toInstant(ZoneOffset.UTC);
 
+		//independent reports, run in parallel
+		CompletableFuture<List<CountryStudentsProfessors>> byCountry = dashboardReports.studentsAndProfessorsByCountry();
+		CompletableFuture<List<PersonByCountry>> personsInEngland = dashboardReports.personsByCountry("England");
+
+		System.out.println("*********************************************************************************");
+
+		for(CountryStudentsProfessors row : byCountry.join()) {
 			System.out.println(
-					"Country: " + country +
-							", students: " + students +
-							", professors: " + professors
+					"Country: " + row.country() +
+							", students: " + row.students() +
+							", professors: " + row.professors()
 			);
 		}
 
 		System.out.println("*********************************************************************************");
 
-		Instant from = LocalDate.parse("2026-01-01").atStartOfDay().toInstant(ZoneOffset.UTC);
-		Instant to = LocalDate.parse("2026-01-31").atStartOfDay().toInstant(ZoneOffset.UTC);
-
-		List<Object[]> modificated_users_values = personRepo.modificated_users(from, to);
-		for(Object[] row : modificated_users_values) {
-			String last_name = (String) row[0];
-			Instant modification_date = (Instant) row[1];
-			Integer student_number = row[2] == null ? null : (Integer) row[2];
-			Integer professor_number = row[3] == null ? null : (Integer) row[3];
-			String address = (String) row[4];
-
-			String result = "last_name=" + last_name +
-					", modification_date=" + modification_date +
-					", student_number=" + student_number +
-					", professor_number=" + professor_number +
-					", address=" + address;
+		//streamed through the cursor, started after the previous section so the output doesn't interleave
+		dashboardReports.modifiedUsers(from, to, row -> {
+			String result = "last_name=" + row.lastName() +
+					", modification_date=" + row.modificationDate() +
+					", student_number=" + row.studentNumber() +
+					", professor_number=" + row.professorNumber() +
+					", address=" + row.address();
 
 			System.out.println(result);
-		}
+		}).join();
 
 
 		System.out.println("*********************************************************************************");
 
-		List<Object[]> groupPersonByCountry = personRepo.groupPersonByCountry("England");
-		for(Object[] row : groupPersonByCountry) {
-			String country = (String) row[0];
-			String last_name = (String) row[1];
-			String person_type = (String) row[2];
-
-			String result = "country=" + country +
-					", last_name=" + last_name +
-					", person_type=" + person_type;
+		for(PersonByCountry row : personsInEngland.join()) {
+			String result = "country=" + row.country() +
+					", last_name=" + row.lastName() +
+					", person_type=" + row.personType();
 			System.out.println(result);
 		}
 
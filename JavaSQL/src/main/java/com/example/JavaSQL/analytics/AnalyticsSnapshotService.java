@@ -0,0 +1,144 @@
+package com.example.JavaSQL.analytics;
+
+import com.example.JavaSQL.services.PersonChangeFeed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps a {@link ColumnarSnapshot} of the person table for the dashboards.
+ * The snapshot is reloaded on university.analytics.refresh-interval, but only when the data has changed since the
+ * last load: on PostgreSQL that is the person_change_log watermark (address moves and country renames are logged
+ * for the persons they affect), elsewhere a fingerprint of row counts, max(modification_date), an address/country
+ * checksum and the country names.
+ * With university.analytics.snapshot-file set the snapshot is also kept on disk and served right after a restart.
+ */
+@Service
+@ConditionalOnProperty(name = "university.analytics.enabled", havingValue = "true")
+public class AnalyticsSnapshotService {
+
+	private static final Logger log = LoggerFactory.getLogger(AnalyticsSnapshotService.class);
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate readOnlyTransaction;
+	private final PersonChangeFeed personChangeFeed;
+	private final Path file;
+
+	private volatile ColumnarSnapshot snapshot;
+
+	public AnalyticsSnapshotService(JdbcTemplate jdbcTemplate,
+									PlatformTransactionManager transactionManager,
+									PersonChangeFeed personChangeFeed,
+									@Value("${university.analytics.snapshot-file:}") String file,
+									@Value("${university.reports.fetch-size:500}") int fetchSize) {
+		//own template: the fetch size makes PostgreSQL stream the load through a cursor (inside the transaction)
+		this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+		this.jdbcTemplate.setFetchSize(fetchSize);
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		this.personChangeFeed = personChangeFeed;
+		this.file = file.isBlank() ? null : Path.of(file);
+	}
+
+	//after the runners have seeded the database
+	@EventListener(ApplicationReadyEvent.class)
+	void start() {
+		if (file != null && Files.exists(file)) {
+			try {
+				snapshot = ColumnarSnapshot.readFrom(file);
+				log.info("Analytics snapshot of {} persons read from {}", snapshot.persons(), file);
+			} catch (IOException e) {
+				log.warn("Ignoring unreadable analytics snapshot {}", file, e);
+			}
+		}
+		refresh();
+	}
+
+	public Optional<ColumnarSnapshot> snapshot() {
+		return Optional.ofNullable(snapshot);
+	}
+
+	//true when the snapshot was reloaded
+	@Scheduled(initialDelayString = "${university.analytics.refresh-interval:PT1M}",
+			fixedDelayString = "${university.analytics.refresh-interval:PT1M}")
+	public synchronized boolean refresh() {
+		//read before the load: a change that lands in between is loaded now and reloaded once more next time, never missed
+		String version = currentVersion();
+		ColumnarSnapshot current = snapshot;
+		if (current != null && current.version().equals(version)) {
+			return false;
+		}
+		ColumnarSnapshot loaded = readOnlyTransaction.execute(status -> load(version));
+		snapshot = loaded;
+		if (file != null) {
+			try {
+				loaded.writeTo(file);
+			} catch (IOException e) {
+				log.warn("Could not write analytics snapshot to {}", file, e);
+			}
+		}
+		return true;
+	}
+
+	private String currentVersion() {
+		if (personChangeFeed.isAvailable()) {
+			return "feed:" + personChangeFeed.latest();
+		}
+		//the address checksum moves when an address changes country, the names hash when a country is renamed
+		String rows = jdbcTemplate.queryForObject("""
+						SELECT (SELECT COUNT(*) FROM person), (SELECT MAX(modification_date) FROM person),
+						  (SELECT COUNT(*) FROM student), (SELECT COUNT(*) FROM professor), (SELECT COUNT(*) FROM address),
+						  (SELECT SUM(id_address * id_country) FROM address)
+						""",
+				(rs, rowNum) -> "rows:" + rs.getLong(1) + "/" + rs.getTimestamp(2) + "/" + rs.getLong(3) + "/" + rs.getLong(4)
+						+ "/" + rs.getLong(5) + "/" + rs.getBigDecimal(6));
+		List<String> countries = jdbcTemplate.queryForList("SELECT name FROM country ORDER BY id_country", String.class);
+		return rows + "/" + countries.hashCode();
+	}
+
+	private ColumnarSnapshot load(String version) {
+		List<String> names = new ArrayList<>();
+		Map<String, Integer> countryIndex = new HashMap<>();
+		ColumnarSnapshot.Builder builder = new ColumnarSnapshot.Builder(names);
+		//one statement, so persons and their country names come from the same snapshot
+		jdbcTemplate.query("""
+				SELECT c.name,
+				  CASE WHEN s.id_person IS NOT NULL THEN 1 ELSE 0 END + CASE WHEN pr.id_person IS NOT NULL THEN 2 ELSE 0 END,
+				  p.modification_date
+				FROM person p
+				JOIN address a ON a.id_address = p.id_address
+				JOIN country c ON c.id_country = a.id_country
+				LEFT JOIN student s ON s.id_person = p.id_person
+				LEFT JOIN professor pr ON pr.id_person = p.id_person
+				""", rs -> {
+			int country = countryIndex.computeIfAbsent(rs.getString(1), name -> {
+				names.add(name);
+				return names.size() - 1;
+			});
+			Timestamp modified = rs.getTimestamp(3);
+			builder.add(country, rs.getByte(2), modified == null ? ColumnarSnapshot.NO_DATE : modified.getTime());
+		});
+		ColumnarSnapshot loaded = builder.build(version, Instant.now());
+		log.info("Analytics snapshot loaded: {} persons, {} countries ({})", loaded.persons(), names.size(), version);
+		return loaded;
+	}
+}
@@ -0,0 +1,223 @@
+package com.example.JavaSQL.analytics;
+
+import com.example.JavaSQL.model.projection.CountryActivity;
+import com.example.JavaSQL.model.projection.CountryStudentsProfessors;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * The columns the person reports aggregate over, one primitive array per column (row i of every array is one person):
+ * country as an index into {@link #countries()}, student/professor as a bitmask, modification_date as epoch millis.
+ * Immutable; grouped counts are parallel scans over chunks of the arrays.
+ */
+public final class ColumnarSnapshot {
+
+	public static final byte STUDENT = 1;
+	public static final byte PROFESSOR = 2;
+	//modification_date IS NULL, never inside a range
+	public static final long NO_DATE = Long.MIN_VALUE;
+
+	private static final int MAGIC = 0x554E4931;
+	private static final int CHUNK = 1 << 16;
+
+	private final String version;
+	private final Instant takenAt;
+	private final String[] countries;
+	private final int[] country;
+	private final byte[] type;
+	private final long[] modified;
+
+	private ColumnarSnapshot(String version, Instant takenAt, String[] countries, int[] country, byte[] type, long[] modified) {
+		this.version = version;
+		this.takenAt = takenAt;
+		this.countries = countries;
+		this.country = country;
+		this.type = type;
+		this.modified = modified;
+	}
+
+	//the database state the snapshot was loaded from, see AnalyticsSnapshotService
+	public String version() {
+		return version;
+	}
+
+	public Instant takenAt() {
+		return takenAt;
+	}
+
+	public int persons() {
+		return country.length;
+	}
+
+	public List<String> countries() {
+		return List.of(countries);
+	}
+
+	//PersonRepo.students_and_professors_grouped_by_country
+	public List<CountryStudentsProfessors> studentsAndProfessorsByCountry() {
+		long[] counts = count(Long.MIN_VALUE, Long.MAX_VALUE);
+		List<CountryStudentsProfessors> result = new ArrayList<>();
+		for (int c = 0; c < countries.length; c++) {
+			long students = counts[c * 3 + 1];
+			long professors = counts[c * 3 + 2];
+			if (students + professors > 0) {
+				result.add(new CountryStudentsProfessors(countries[c], students, professors));
+			}
+		}
+		result.sort(Comparator.comparing(CountryStudentsProfessors::country));
+		return List.copyOf(result);
+	}
+
+	//persons with modification_date in [from, to], per country
+	public List<CountryActivity> modifiedBetween(Instant from, Instant to) {
+		long[] counts = count(from.toEpochMilli(), to.toEpochMilli());
+		List<CountryActivity> result = new ArrayList<>();
+		for (int c = 0; c < countries.length; c++) {
+			if (counts[c * 3] > 0) {
+				result.add(new CountryActivity(countries[c], counts[c * 3], counts[c * 3 + 1], counts[c * 3 + 2]));
+			}
+		}
+		result.sort(Comparator.comparing(CountryActivity::country));
+		return List.copyOf(result);
+	}
+
+	//per country: persons, students, professors with from <= modified <= to
+	private long[] count(long from, long to) {
+		int chunks = (country.length + CHUNK - 1) / CHUNK;
+		IntStream scan = IntStream.range(0, chunks);
+		if (chunks > 1) {
+			scan = scan.parallel();
+		}
+		return scan.mapToObj(chunk -> countChunk(chunk * CHUNK, Math.min(country.length, (chunk + 1) * CHUNK), from, to))
+				.reduce((a, b) -> {
+					Arrays.setAll(a, i -> a[i] + b[i]);
+					return a;
+				})
+				.orElseGet(() -> new long[countries.length * 3]);
+	}
+
+	private long[] countChunk(int start, int end, long from, long to) {
+		long[] counts = new long[countries.length * 3];
+		for (int i = start; i < end; i++) {
+			long date = modified[i];
+			if (date < from || date > to) {
+				continue;
+			}
+			int slot = country[i] * 3;
+			byte roles = type[i];
+			counts[slot]++;
+			counts[slot + 1] += roles & STUDENT;
+			counts[slot + 2] += (roles & PROFESSOR) >> 1;
+		}
+		return counts;
+	}
+
+	/**
+	 * Writes the snapshot through a memory-mapped file (written next to {@code file}, then moved over it),
+	 * so a restart can serve it before the first reload.
+	 */
+	public void writeTo(Path file) throws IOException {
+		byte[] versionBytes = version.getBytes(StandardCharsets.UTF_8);
+		List<byte[]> names = Arrays.stream(countries).map(name -> name.getBytes(StandardCharsets.UTF_8)).toList();
+		long size = 4 + 4 + versionBytes.length + 8 + 4 + 4
+				+ names.stream().mapToLong(name -> 4 + name.length).sum()
+				+ (long) country.length * (4 + 1 + 8);
+
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			buffer.putInt(MAGIC);
+			buffer.putInt(versionBytes.length).put(versionBytes);
+			buffer.putLong(takenAt.toEpochMilli());
+			buffer.putInt(countries.length);
+			buffer.putInt(country.length);
+			for (byte[] name : names) {
+				buffer.putInt(name.length).put(name);
+			}
+			buffer.asIntBuffer().put(country);
+			buffer.position(buffer.position() + country.length * 4);
+			buffer.put(type);
+			buffer.asLongBuffer().put(modified);
+			buffer.force();
+		}
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	public static ColumnarSnapshot readFrom(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt() != MAGIC) {
+				throw new IOException(file + " is not an analytics snapshot");
+			}
+			String version = string(buffer);
+			Instant takenAt = Instant.ofEpochMilli(buffer.getLong());
+			String[] countries = new String[buffer.getInt()];
+			int rows = buffer.getInt();
+			for (int c = 0; c < countries.length; c++) {
+				countries[c] = string(buffer);
+			}
+			int[] country = new int[rows];
+			buffer.asIntBuffer().get(country);
+			buffer.position(buffer.position() + rows * 4);
+			byte[] type = new byte[rows];
+			buffer.get(type);
+			long[] modified = new long[rows];
+			buffer.asLongBuffer().get(modified);
+			return new ColumnarSnapshot(version, takenAt, countries, country, type, modified);
+		}
+	}
+
+	private static String string(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	//rows are appended while the load query streams, the arrays grow like an ArrayList; the country list may grow too
+	public static final class Builder {
+
+		private final List<String> countries;
+		private int[] country = new int[1024];
+		private byte[] type = new byte[1024];
+		private long[] modified = new long[1024];
+		private int size;
+
+		public Builder(List<String> countries) {
+			this.countries = countries;
+		}
+
+		public Builder add(int countryIndex, byte roles, long modifiedMillis) {
+			if (size == country.length) {
+				int capacity = size + (size >> 1);
+				country = Arrays.copyOf(country, capacity);
+				type = Arrays.copyOf(type, capacity);
+				modified = Arrays.copyOf(modified, capacity);
+			}
+			country[size] = countryIndex;
+			type[size] = roles;
+			modified[size] = modifiedMillis;
+			size++;
+			return this;
+		}
+
+		public ColumnarSnapshot build(String version, Instant takenAt) {
+			return new ColumnarSnapshot(version, takenAt, countries.toArray(String[]::new),
+					Arrays.copyOf(country, size), Arrays.copyOf(type, size), Arrays.copyOf(modified, size));
+		}
+	}
+}
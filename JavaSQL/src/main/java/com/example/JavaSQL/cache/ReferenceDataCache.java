@@ -0,0 +1,121 @@
+package com.example.JavaSQL.cache;
+
+import com.example.JavaSQL.model.Address;
+import com.example.JavaSQL.model.Country;
+import com.example.JavaSQL.repositories.AddressRepo;
+import com.example.JavaSQL.repositories.CountryRepo;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Country and Address are tiny and almost never change, so they are kept in memory as immutable, id-indexed maps.
+ * Writes through CountryRepo/AddressRepo invalidate the snapshot (see {@link ReferenceDataListener}),
+ * the next lookup reloads it. Native inserts bypass the listener, callers have to {@link #invalidate()} themselves.
+ * Every snapshot remembers the generation it was loaded in and {@link #invalidate()} moves to the next one,
+ * so a load that was already running when the data changed is never served as current.
+ */
+@Component
+public class ReferenceDataCache {
+
+	public record CountryRef(Long id, String name) {
+	}
+
+	public record AddressRef(Long id, Long countryId, String city, String street) {
+	}
+
+	public record Stats(long hits, long misses, long refreshes, int countries, int addresses) {
+	}
+
+	private record Snapshot(long generation,
+							Map<Long, CountryRef> countriesById,
+							Map<String, Long> countryIdsByName,
+							Map<Long, AddressRef> addressesById) {
+	}
+
+	private final CountryRepo countryRepo;
+	private final AddressRepo addressRepo;
+
+	private volatile Snapshot snapshot;
+	private final AtomicLong generation = new AtomicLong();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong refreshes = new AtomicLong();
+
+	public ReferenceDataCache(CountryRepo countryRepo, AddressRepo addressRepo) {
+		this.countryRepo = countryRepo;
+		this.addressRepo = addressRepo;
+	}
+
+	public Optional<Long> countryId(String name) {
+		return count(snapshot().countryIdsByName().get(name));
+	}
+
+	public Optional<CountryRef> country(Long idCountry) {
+		return count(snapshot().countriesById().get(idCountry));
+	}
+
+	public Optional<AddressRef> address(Long idAddress) {
+		return count(snapshot().addressesById().get(idAddress));
+	}
+
+	public void invalidate() {
+		generation.incrementAndGet();
+	}
+
+	//countries and addresses are read separately, an address only ever carries its country's id
+	public synchronized void refresh() {
+		long loading = generation.get();
+		List<Country> countries = countryRepo.findAll();
+		List<Address> addresses = addressRepo.findAll();
+
+		Map<Long, CountryRef> countriesById = new HashMap<>();
+		Map<String, Long> countryIdsByName = new HashMap<>();
+		for (Country country : countries) {
+			countriesById.put(country.getId_country(), new CountryRef(country.getId_country(), country.getName()));
+			countryIdsByName.put(country.getName(), country.getId_country());
+		}
+		Map<Long, AddressRef> addressesById = new HashMap<>();
+		for (Address address : addresses) {
+			addressesById.put(address.getId_address(), new AddressRef(address.getId_address(),
+					address.getId_country().getId_country(), address.getCity(), address.getStreet()));
+		}
+
+		snapshot = new Snapshot(loading, Map.copyOf(countriesById), Map.copyOf(countryIdsByName), Map.copyOf(addressesById));
+		refreshes.incrementAndGet();
+	}
+
+	public Stats stats() {
+		Snapshot current = snapshot;
+		return new Stats(hits.get(), misses.get(), refreshes.get(),
+				current == null ? 0 : current.countriesById().size(),
+				current == null ? 0 : current.addressesById().size());
+	}
+
+	private Snapshot snapshot() {
+		Snapshot current = snapshot;
+		if (!isCurrent(current)) {
+			synchronized (this) {
+				if (!isCurrent(snapshot)) {
+					refresh();
+				}
+				current = snapshot;
+			}
+		}
+		return current;
+	}
+
+	private boolean isCurrent(Snapshot current) {
+		return current != null && current.generation() == generation.get();
+	}
+
+	private <T> Optional<T> count(T value) {
+		(value == null ? misses : hits).incrementAndGet();
+		return Optional.ofNullable(value);
+	}
+}
@@ -0,0 +1,34 @@
+package com.example.JavaSQL.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+//Entity listener on Country and Address, drops the cached snapshot once the writing transaction commits
+public class ReferenceDataListener {
+
+	private final ObjectProvider<ReferenceDataCache> referenceDataCache;
+
+	public ReferenceDataListener(ObjectProvider<ReferenceDataCache> referenceDataCache) {
+		this.referenceDataCache = referenceDataCache;
+	}
+
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	void onWrite(Object entity) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					referenceDataCache.ifAvailable(ReferenceDataCache::invalidate);
+				}
+			});
+		} else {
+			referenceDataCache.ifAvailable(ReferenceDataCache::invalidate);
+		}
+	}
+}
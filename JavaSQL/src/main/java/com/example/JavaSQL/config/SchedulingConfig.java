@@ -0,0 +1,10 @@
+package com.example.JavaSQL.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+//@Scheduled jobs: AnalyticsSnapshotService.refresh, PersonChangeFeed.prune
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,63 @@
+package com.example.JavaSQL.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Logs where the startup time went once the application is ready: the top-level phases in order and the
+ * slowest bean instantiations (inclusive of their dependencies). Needs the BufferingApplicationStartup set in main,
+ * the same timeline is served by the actuator startup endpoint.
+ */
+@Component
+public class StartupTimingReport {
+
+	private static final Logger log = LoggerFactory.getLogger(StartupTimingReport.class);
+	private static final int SLOWEST_BEANS = 10;
+
+	private final ApplicationStartup applicationStartup;
+
+	public StartupTimingReport(ApplicationStartup applicationStartup) {
+		this.applicationStartup = applicationStartup;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void report(ApplicationReadyEvent event) {
+		if (!(applicationStartup instanceof BufferingApplicationStartup buffering)) {
+			return;
+		}
+		List<TimelineEvent> events = buffering.getBufferedTimeline().getEvents();
+
+		StringBuilder report = new StringBuilder("Startup took ").append(event.getTimeTaken().toMillis()).append(" ms");
+		for (TimelineEvent phase : events) {
+			if (phase.getStartupStep().getParentId() == null) {
+				report.append(String.format("%n  %-50s %6d ms", phase.getStartupStep().getName(), phase.getDuration().toMillis()));
+			}
+		}
+		report.append(String.format("%n  slowest beans:"));
+		events.stream()
+				.filter(bean -> "spring.beans.instantiate".equals(bean.getStartupStep().getName()))
+				.sorted(Comparator.comparing(TimelineEvent::getDuration).reversed())
+				.limit(SLOWEST_BEANS)
+				.forEach(bean -> report.append(String.format("%n  %-50s %6d ms", beanName(bean.getStartupStep()), bean.getDuration().toMillis())));
+		log.info(report.toString());
+	}
+
+	private static String beanName(StartupStep step) {
+		for (StartupStep.Tag tag : step.getTags()) {
+			if ("beanName".equals(tag.getKey())) {
+				return tag.getValue();
+			}
+		}
+		return step.getName();
+	}
+}
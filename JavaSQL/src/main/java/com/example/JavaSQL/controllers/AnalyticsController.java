@@ -0,0 +1,49 @@
+package com.example.JavaSQL.controllers;
+
+import com.example.JavaSQL.analytics.AnalyticsSnapshotService;
+import com.example.JavaSQL.analytics.ColumnarSnapshot;
+import com.example.JavaSQL.model.projection.CountryActivity;
+import com.example.JavaSQL.model.projection.CountryStudentsProfessors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+
+//Dashboard reports answered from the in-memory snapshot; 503 until the first load has finished
+@RestController
+@RequestMapping("/api/analytics")
+@ConditionalOnProperty(name = "university.analytics.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+	private final AnalyticsSnapshotService analyticsSnapshotService;
+
+	@GetMapping("/students-and-professors-by-country")
+	public ResponseEntity<List<CountryStudentsProfessors>> studentsAndProfessorsByCountry() {
+		return fromSnapshot(ColumnarSnapshot::studentsAndProfessorsByCountry);
+	}
+
+	@GetMapping("/modified-by-country")
+	public ResponseEntity<List<CountryActivity>> modifiedByCountry(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+		return fromSnapshot(snapshot -> snapshot.modifiedBetween(from, to));
+	}
+
+	private <T> ResponseEntity<T> fromSnapshot(Function<ColumnarSnapshot, T> report) {
+		return analyticsSnapshotService.snapshot()
+				.map(snapshot -> ResponseEntity.ok()
+						.header("X-Snapshot-Taken-At", snapshot.takenAt().toString())
+						.body(report.apply(snapshot)))
+				.orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+	}
+}
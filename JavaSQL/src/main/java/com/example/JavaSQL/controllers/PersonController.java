@@ -0,0 +1,83 @@
+package com.example.JavaSQL.controllers;
+
+import com.example.JavaSQL.model.Person;
+import com.example.JavaSQL.model.Professor;
+import com.example.JavaSQL.model.Student;
+import com.example.JavaSQL.repositories.PersonRepo;
+import com.example.JavaSQL.repositories.ProfessorRepo;
+import com.example.JavaSQL.repositories.StudentRepo;
+import com.example.JavaSQL.services.PersonChangeFeed;
+import com.example.JavaSQL.services.PersonChangeFeed.ChangeBatch;
+import com.example.JavaSQL.services.PersonChangeFeed.Watermark;
+import com.example.JavaSQL.services.PersonIngestionService;
+import com.example.JavaSQL.services.PersonIngestionService.IngestionResult;
+import com.example.JavaSQL.services.PersonIngestionService.PersonIngest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class PersonController {
+
+	private final PersonRepo personRepo;
+	private final StudentRepo studentRepo;
+	private final ProfessorRepo professorRepo;
+	private final PersonChangeFeed personChangeFeed;
+	private final PersonIngestionService personIngestionService;
+
+	@GetMapping("/persons/{id}")
+	public ResponseEntity<Person> person(@PathVariable Long id) {
+		return ResponseEntity.of(personRepo.findById(id));
+	}
+
+	//GET /api/persons/changes?after=<watermark from the previous call>, start without it
+	@GetMapping("/persons/changes")
+	public ResponseEntity<ChangeBatch> personChanges(@RequestParam(required = false) String after,
+													 @RequestParam(defaultValue = "500") int limit) {
+		if (!personChangeFeed.isAvailable()) {
+			return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+		}
+		if (limit < 1) {
+			return ResponseEntity.badRequest().build();
+		}
+		Watermark watermark;
+		try {
+			watermark = after == null ? Watermark.START : Watermark.parse(after);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		}
+		return ResponseEntity.ok(personChangeFeed.changesSince(watermark, limit));
+	}
+
+	//persons with country and address by value; references are matched on their natural keys, not duplicated.
+	//All or nothing: on 400 (invalid person) or 500 nothing was stored
+	@PostMapping("/persons/ingest")
+	public ResponseEntity<IngestionResult> ingest(@RequestBody List<PersonIngest> persons) {
+		try {
+			return ResponseEntity.ok(personIngestionService.ingest(persons));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	@GetMapping("/students/{id}")
+	public ResponseEntity<Student> student(@PathVariable Long id) {
+		return ResponseEntity.of(studentRepo.findById(id));
+	}
+
+	@GetMapping("/professors/{id}")
+	public ResponseEntity<Professor> professor(@PathVariable Long id) {
+		return ResponseEntity.of(professorRepo.findById(id));
+	}
+}
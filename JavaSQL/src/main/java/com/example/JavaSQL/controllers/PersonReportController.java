@@ -0,0 +1,78 @@
+package com.example.JavaSQL.controllers;
+
+import com.example.JavaSQL.model.projection.CountryStudentsProfessors;
+import com.example.JavaSQL.model.projection.PersonByCountry;
+import com.example.JavaSQL.services.CountryStatsService;
+import com.example.JavaSQL.services.PersonReportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reports")
+public class PersonReportController {
+
+	static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+	private final PersonReportService personReportService;
+	private final CountryStatsService countryStatsService;
+	private final JsonMapper jsonMapper;
+	private final int flushEvery;
+
+	public PersonReportController(PersonReportService personReportService,
+								  CountryStatsService countryStatsService,
+								  JsonMapper jsonMapper,
+								  @Value("${university.reports.ndjson-flush-rows:100}") int flushEvery) {
+		this.personReportService = personReportService;
+		this.countryStatsService = countryStatsService;
+		this.jsonMapper = jsonMapper;
+		this.flushEvery = flushEvery;
+	}
+
+	@GetMapping("/students-and-professors-by-country")
+	public List<CountryStudentsProfessors> studentsAndProfessorsByCountry() {
+		return countryStatsService.studentsAndProfessorsGroupedByCountry();
+	}
+
+	@GetMapping("/persons-by-country")
+	public List<PersonByCountry> personsByCountry(@RequestParam String country) {
+		return personReportService.groupPersonByCountry(country);
+	}
+
+	//one JSON object per line; the first row and then every flushEvery rows are flushed, so the client doesn't wait for the whole result
+	@GetMapping("/modificated-users")
+	public ResponseEntity<StreamingResponseBody> modificatedUsers(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+
+		StreamingResponseBody body = out -> {
+			long[] written = {0};
+			personReportService.forEachModificatedUser(from, to, row -> {
+				try {
+					out.write(jsonMapper.writeValueAsBytes(row));
+					out.write('\n');
+					if (written[0]++ % flushEvery == 0) {
+						out.flush();
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			out.flush();
+		};
+
+		return ResponseEntity.ok().contentType(NDJSON).body(body);
+	}
+}
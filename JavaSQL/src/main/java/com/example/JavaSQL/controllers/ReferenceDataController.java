@@ -0,0 +1,27 @@
+package com.example.JavaSQL.controllers;
+
+import com.example.JavaSQL.cache.ReferenceDataCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/reference-data")
+@RequiredArgsConstructor
+public class ReferenceDataController {
+
+	private final ReferenceDataCache referenceDataCache;
+
+	@GetMapping("/stats")
+	public ReferenceDataCache.Stats stats() {
+		return referenceDataCache.stats();
+	}
+
+	@PostMapping("/refresh")
+	public ReferenceDataCache.Stats refresh() {
+		referenceDataCache.refresh();
+		return referenceDataCache.stats();
+	}
+}
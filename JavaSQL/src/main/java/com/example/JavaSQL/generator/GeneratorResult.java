@@ -0,0 +1,21 @@
+package com.example.JavaSQL.generator;
+
+import java.time.Duration;
+
+public record GeneratorResult(long countries, long addresses, long persons, long students, long professors, Duration elapsed) {
+
+	public long rows() {
+		return countries + addresses + persons + students + professors;
+	}
+
+	public double rowsPerSecond() {
+		long millis = Math.max(1, elapsed.toMillis());
+		return rows() * 1000.0 / millis;
+	}
+
+	@Override
+	public String toString() {
+		return "%d countries, %d addresses, %d persons (%d students, %d professors) in %d ms (%.0f rows/sec)".formatted(
+				countries, addresses, persons, students, professors, elapsed.toMillis(), rowsPerSecond());
+	}
+}
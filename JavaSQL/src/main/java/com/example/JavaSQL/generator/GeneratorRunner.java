@@ -0,0 +1,32 @@
+package com.example.JavaSQL.generator;
+
+import com.example.JavaSQL.cache.ReferenceDataCache;
+import com.example.JavaSQL.services.CountryStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+//Takes the place of UniversityRunner's seed data when university.generator.enabled=true
+@Component
+@Profile("!prod")  //it truncates the tables first
+@ConditionalOnProperty(name = "university.generator.enabled", havingValue = "true")
+@EnableConfigurationProperties(GeneratorSpec.class)
+@RequiredArgsConstructor
+public class GeneratorRunner implements CommandLineRunner {
+
+	private final SyntheticDataGenerator generator;
+	private final GeneratorSpec spec;
+	private final CountryStatsService countryStatsService;
+	private final ReferenceDataCache referenceDataCache;
+
+	@Override
+	public void run(String... args) throws Exception {
+		GeneratorResult result = generator.generate(spec);
+		countryStatsService.rebuild();
+		referenceDataCache.invalidate();
+		System.out.println("Generated " + result);
+	}
+}
@@ -0,0 +1,44 @@
+package com.example.JavaSQL.generator;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Instant;
+
+/**
+ * Target shape of the synthetic university. The same spec (seed and batchRows included) always produces
+ * the same rows, whatever the number of threads.
+ *
+ * @param countrySkew  1 spreads addresses evenly over countries, higher values pile them up on the low country ids
+ * @param recencySkew  1 spreads modification dates evenly, higher values pull them towards modificationTo
+ */
+@ConfigurationProperties("university.generator")
+public record GeneratorSpec(
+		@DefaultValue("42") long seed,
+		@DefaultValue("20") int countries,
+		@DefaultValue("1000") int addresses,
+		@DefaultValue("100000") int persons,
+		@DefaultValue("0.7") double studentRatio,
+		@DefaultValue("0.1") double professorRatio,
+		@DefaultValue("2025-11-03T00:00:00Z") Instant modificationFrom,
+		@DefaultValue("2026-02-01T00:00:00Z") Instant modificationTo,
+		@DefaultValue("1.0") double countrySkew,
+		@DefaultValue("1.0") double recencySkew,
+		@DefaultValue("1000") int batchRows,
+		@DefaultValue("4") int threads) {
+
+	public GeneratorSpec {
+		if (countries < 1 || addresses < 1 || persons < 0) {
+			throw new IllegalArgumentException("countries and addresses must be positive, persons not negative");
+		}
+		if (studentRatio < 0 || professorRatio < 0 || studentRatio + professorRatio > 1) {
+			throw new IllegalArgumentException("studentRatio + professorRatio must be within [0, 1]");
+		}
+		if (!modificationFrom.isBefore(modificationTo)) {
+			throw new IllegalArgumentException("modificationFrom must be before modificationTo");
+		}
+		if (batchRows < 1 || threads < 1) {
+			throw new IllegalArgumentException("batchRows and threads must be positive");
+		}
+	}
+}
@@ -0,0 +1,188 @@
+package com.example.JavaSQL.generator;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Replaces the contents of country, address, person, student and professor with the university described by a
+ * {@link GeneratorSpec}. Rows get explicit ids 1..n and every chunk of batchRows ids draws from its own
+ * SplittableRandom seeded from (seed, table, chunk), so chunks are inserted in parallel - one multi-row INSERT each -
+ * and the data is still identical for the same spec. Tables are filled in FK order.
+ */
+@Component
+public class SyntheticDataGenerator {
+
+	private static final String[] LAST_NAMES = {
+			"Kowalski", "Nowak", "Wisniewski", "Wojcik", "Kaminski", "Lewandowski", "Zielinski", "Szymanski",
+			"Muller", "Schmidt", "Schneider", "Fischer", "Weber", "Meyer", "Wagner", "Becker",
+			"Smith", "Jones", "Taylor", "Brown", "Williams", "Wilson", "Johnson", "Davies"
+	};
+
+	private enum Table { COUNTRY, ADDRESS, PERSON, ROLE }
+
+	@FunctionalInterface
+	private interface ChunkWriter {
+		void write(SplittableRandom random, long firstId, long lastId);
+	}
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public SyntheticDataGenerator(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	public GeneratorResult generate(GeneratorSpec spec) {
+		long start = System.nanoTime();
+		boolean postgres = isPostgres();
+		clear(postgres);
+		//country_stats is rebuilt in one pass afterwards instead of being upserted for every row,
+		//the statement-level person_change_log triggers stay on
+		if (postgres) {
+			setCountryStatsTriggers(false);
+		}
+		try (ExecutorService executor = Executors.newFixedThreadPool(spec.threads())) {
+			inChunks(executor, spec, Table.COUNTRY, spec.countries(), (random, first, last) -> countries(first, last));
+			inChunks(executor, spec, Table.ADDRESS, spec.addresses(), (random, first, last) -> addresses(spec, random, first, last));
+			inChunks(executor, spec, Table.PERSON, spec.persons(), (random, first, last) -> persons(spec, random, first, last));
+			inChunks(executor, spec, Table.ROLE, spec.persons(), (random, first, last) -> roles(spec, random, first, last));
+		} finally {
+			if (postgres) {
+				setCountryStatsTriggers(true);
+			}
+		}
+
+		long students = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student", Long.class);
+		long professors = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM professor", Long.class);
+		//explicit ids bypass the identity columns, later inserts have to start after them
+		restartIdentity("country", "id_country", spec.countries() + 1L);
+		restartIdentity("address", "id_address", spec.addresses() + 1L);
+		restartIdentity("person", "id_person", spec.persons() + 1L);
+		restartIdentity("student", "id_student", spec.persons() + 1L);
+		restartIdentity("professor", "id_professor", spec.persons() + 1L);
+
+		return new GeneratorResult(spec.countries(), spec.addresses(), spec.persons(), students, professors,
+				Duration.ofNanos(System.nanoTime() - start));
+	}
+
+	private void countries(long first, long last) {
+		List<Object[]> rows = new ArrayList<>();
+		for (long id = first; id <= last; id++) {
+			rows.add(new Object[]{id, "Country" + id});
+		}
+		insert("country", rows, "id_country", "name");
+	}
+
+	private void addresses(GeneratorSpec spec, SplittableRandom random, long first, long last) {
+		List<Object[]> rows = new ArrayList<>();
+		for (long id = first; id <= last; id++) {
+			long country = 1 + Math.min(spec.countries() - 1, (long) (spec.countries() * Math.pow(random.nextDouble(), spec.countrySkew())));
+			rows.add(new Object[]{id, country, "City" + random.nextInt(100), "Street " + id});
+		}
+		insert("address", rows, "id_address", "id_country", "city", "street");
+	}
+
+	private void persons(GeneratorSpec spec, SplittableRandom random, long first, long last) {
+		long span = Duration.between(spec.modificationFrom(), spec.modificationTo()).toMillis();
+		List<Object[]> rows = new ArrayList<>();
+		for (long id = first; id <= last; id++) {
+			Instant modified = spec.modificationTo().minusMillis((long) (span * Math.pow(random.nextDouble(), spec.recencySkew())));
+			Instant created = modified.minus(random.nextLong(365), ChronoUnit.DAYS);
+			rows.add(new Object[]{
+					id,
+					1 + random.nextLong(spec.addresses()),
+					LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+					created.atOffset(ZoneOffset.UTC),
+					modified.atOffset(ZoneOffset.UTC)
+			});
+		}
+		insert("person", rows, "id_person", "id_address", "last_name", "creation_date", "modification_date");
+	}
+
+	//student and professor share the person id, so their numbers stay unique without coordination between chunks
+	private void roles(GeneratorSpec spec, SplittableRandom random, long first, long last) {
+		List<Object[]> students = new ArrayList<>();
+		List<Object[]> professors = new ArrayList<>();
+		for (long id = first; id <= last; id++) {
+			double roll = random.nextDouble();
+			if (roll < spec.studentRatio()) {
+				students.add(new Object[]{id, id, (int) id});
+			} else if (roll < spec.studentRatio() + spec.professorRatio()) {
+				professors.add(new Object[]{id, id, (int) id});
+			}
+		}
+		insert("student", students, "id_student", "id_person", "student_number");
+		insert("professor", professors, "id_professor", "id_person", "professor_number");
+	}
+
+	private void inChunks(ExecutorService executor, GeneratorSpec spec, Table table, long rows, ChunkWriter writer) {
+		List<CompletableFuture<Void>> chunks = new ArrayList<>();
+		for (long chunk = 0; chunk * spec.batchRows() < rows; chunk++) {
+			long first = chunk * spec.batchRows() + 1;
+			long last = Math.min(rows, first + spec.batchRows() - 1);
+			SplittableRandom random = random(spec.seed(), table, chunk);
+			chunks.add(CompletableFuture.runAsync(() -> writer.write(random, first, last), executor));
+		}
+		//the next table references this one
+		CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+	}
+
+	private void insert(String table, List<Object[]> rows, String... columns) {
+		if (rows.isEmpty()) {
+			return;
+		}
+		String row = "(" + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+		String sql = "INSERT INTO " + table + "(" + String.join(", ", columns) + ") VALUES "
+				+ String.join(", ", Collections.nCopies(rows.size(), row));
+		jdbcTemplate.update(sql, rows.stream().flatMap(Arrays::stream).toArray());
+	}
+
+	private void clear(boolean postgres) {
+		if (postgres) {
+			jdbcTemplate.execute("TRUNCATE TABLE professor, student, person, address, country, country_stats");
+			return;
+		}
+		for (String table : List.of("professor", "student", "person", "address", "country", "country_stats")) {
+			jdbcTemplate.execute("DELETE FROM " + table);
+		}
+	}
+
+	private void setCountryStatsTriggers(boolean enabled) {
+		for (String table : List.of("address", "person", "student", "professor")) {
+			jdbcTemplate.execute("ALTER TABLE " + table + (enabled ? " ENABLE" : " DISABLE") + " TRIGGER country_stats_" + table);
+		}
+	}
+
+	private void restartIdentity(String table, String column, long next) {
+		jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN " + column + " RESTART WITH " + next);
+	}
+
+	private boolean isPostgres() {
+		return "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+				connection.getMetaData().getDatabaseProductName()));
+	}
+
+	private static SplittableRandom random(long seed, Table table, long chunk) {
+		return new SplittableRandom(mix(seed + mix(table.ordinal() * 0x9E3779B97F4A7C15L + chunk)));
+	}
+
+	//murmur3 finalizer, neighbouring (table, chunk) pairs get unrelated streams
+	private static long mix(long z) {
+		z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+		z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return z ^ (z >>> 33);
+	}
+}
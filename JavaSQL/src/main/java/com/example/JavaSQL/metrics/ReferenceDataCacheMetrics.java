@@ -0,0 +1,26 @@
+package com.example.JavaSQL.metrics;
+
+import com.example.JavaSQL.cache.ReferenceDataCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+//ReferenceDataCache hit/miss/refresh counters under /actuator/metrics/reference.cache.*
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataCacheMetrics implements MeterBinder {
+
+	private final ReferenceDataCache referenceDataCache;
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("reference.cache.hits", referenceDataCache, cache -> cache.stats().hits()).register(registry);
+		FunctionCounter.builder("reference.cache.misses", referenceDataCache, cache -> cache.stats().misses()).register(registry);
+		FunctionCounter.builder("reference.cache.refreshes", referenceDataCache, cache -> cache.stats().refreshes()).register(registry);
+		Gauge.builder("reference.cache.countries", referenceDataCache, cache -> cache.stats().countries()).register(registry);
+		Gauge.builder("reference.cache.addresses", referenceDataCache, cache -> cache.stats().addresses()).register(registry);
+	}
+}
@@ -0,0 +1,31 @@
+package com.example.JavaSQL.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+@Configuration
+public class RepositoryMetricsConfig {
+
+	//static: post processors are created before the rest of the context, registry and log are resolved lazily
+	@Bean
+	static BeanPostProcessor repositoryMetricsBeanPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+																ObjectProvider<SlowQueryLog> slowQueryLog) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) {
+				if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+					factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+							(proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(new RepositoryMetricsInterceptor(
+									repositoryInformation.getRepositoryInterface(),
+									meterRegistry.getObject(),
+									slowQueryLog.getObject()))));
+				}
+				return bean;
+			}
+		};
+	}
+}
@@ -0,0 +1,63 @@
+package com.example.JavaSQL.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//GET /actuator/repositories - hottest repository methods first, plus the recent slow calls
+@Component
+@Endpoint(id = "repositories")
+@RequiredArgsConstructor
+public class RepositoryMetricsEndpoint {
+
+	public record MethodStats(String repository, String method, String outcome, long count, double totalMillis,
+							  double meanMillis, double maxMillis, Map<String, Double> percentilesMillis,
+							  double meanStatements, double meanRows) {
+	}
+
+	public record Report(List<MethodStats> methods, List<SlowQueryLog.Entry> slowQueries) {
+	}
+
+	private final MeterRegistry meterRegistry;
+	private final SlowQueryLog slowQueryLog;
+
+	@ReadOperation
+	public Report repositories() {
+		List<MethodStats> methods = meterRegistry.find(RepositoryMetricsInterceptor.INVOCATIONS).timers().stream()
+				.map(this::stats)
+				.sorted(Comparator.comparingDouble(MethodStats::totalMillis).reversed())
+				.toList();
+		return new Report(methods, slowQueryLog.entries());
+	}
+
+	private MethodStats stats(Timer timer) {
+		String repository = timer.getId().getTag("repository");
+		String method = timer.getId().getTag("method");
+
+		Map<String, Double> percentiles = new LinkedHashMap<>();
+		for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+			percentiles.put("p" + Math.round(percentile.percentile() * 100), percentile.value(TimeUnit.MILLISECONDS));
+		}
+
+		return new MethodStats(repository, method, timer.getId().getTag("outcome"), timer.count(),
+				timer.totalTime(TimeUnit.MILLISECONDS), timer.mean(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS),
+				percentiles, mean(RepositoryMetricsInterceptor.STATEMENTS, repository, method),
+				mean(RepositoryMetricsInterceptor.ROWS, repository, method));
+	}
+
+	private double mean(String name, String repository, String method) {
+		DistributionSummary summary = meterRegistry.find(name).tag("repository", repository).tag("method", method).summary();
+		return summary == null ? 0 : summary.mean();
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.JavaSQL.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Array;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Repository calls slower than repository.metrics.slow-query-threshold, with their SQL and the shapes
+ * (type and size, never the values) of the bound arguments. Keeps the last repository.metrics.slow-query-log-size entries.
+ */
+@Component
+public class SlowQueryLog {
+
+	public record Entry(Instant at, String method, long millis, List<String> sql, List<String> parameterShapes) {
+	}
+
+	private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+	private final Duration threshold;
+	private final int size;
+	private final ConcurrentLinkedDeque<Entry> entries = new ConcurrentLinkedDeque<>();
+
+	public SlowQueryLog(@Value("${repository.metrics.slow-query-threshold:200ms}") Duration threshold,
+						@Value("${repository.metrics.slow-query-log-size:100}") int size) {
+		this.threshold = threshold;
+		this.size = size;
+	}
+
+	public boolean isSlow(long nanos) {
+		return nanos >= threshold.toNanos();
+	}
+
+	public void record(String method, long nanos, List<String> sql, Object[] arguments) {
+		Entry entry = new Entry(Instant.now(), method, Duration.ofNanos(nanos).toMillis(), List.copyOf(sql), shapes(arguments));
+		entries.addFirst(entry);
+		while (entries.size() > size) {
+			entries.pollLast();
+		}
+		log.warn("Slow repository call {} took {} ms, parameters {}, sql {}", method, entry.millis(), entry.parameterShapes(), entry.sql());
+	}
+
+	public List<Entry> entries() {
+		return List.copyOf(entries);
+	}
+
+	static List<String> shapes(Object[] arguments) {
+		List<String> shapes = new ArrayList<>(arguments.length);
+		for (Object argument : arguments) {
+			if (argument == null) {
+				shapes.add("null");
+			} else if (argument instanceof CharSequence text) {
+				shapes.add("String(length=" + text.length() + ")");
+			} else if (argument instanceof Collection<?> collection) {
+				shapes.add(argument.getClass().getSimpleName() + "(size=" + collection.size() + ")");
+			} else if (argument instanceof Map<?, ?> map) {
+				shapes.add(argument.getClass().getSimpleName() + "(size=" + map.size() + ")");
+			} else if (argument.getClass().isArray()) {
+				shapes.add(argument.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(argument) + "]");
+			} else {
+				shapes.add(argument.getClass().getSimpleName());
+			}
+		}
+		return shapes;
+	}
+}
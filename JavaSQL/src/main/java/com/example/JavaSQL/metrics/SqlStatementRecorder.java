@@ -0,0 +1,39 @@
+package com.example.JavaSQL.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Collects the SQL Hibernate prepares while a repository method runs on the current thread.
+ * Hibernate creates this class itself (hibernate.session_factory.statement_inspector), hence the static state.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+	private static final ThreadLocal<Deque<List<String>>> FRAMES = ThreadLocal.withInitial(ArrayDeque::new);
+
+	@Override
+	public String inspect(String sql) {
+		//nested repository calls: the statement counts for the caller too
+		for (List<String> frame : FRAMES.get()) {
+			frame.add(sql);
+		}
+		return sql;
+	}
+
+	static void begin() {
+		FRAMES.get().push(new ArrayList<>());
+	}
+
+	static List<String> end() {
+		Deque<List<String>> frames = FRAMES.get();
+		List<String> statements = frames.pop();
+		if (frames.isEmpty()) {
+			FRAMES.remove();
+		}
+		return statements;
+	}
+}
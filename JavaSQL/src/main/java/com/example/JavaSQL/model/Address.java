@@ -1,11 +1,14 @@
 package com.example.JavaSQL.model;
 
+import com.example.JavaSQL.cache.ReferenceDataListener;
 import jakarta.persistence.*;
 import lombok.Data;
 
 @Entity
+@EntityListeners(ReferenceDataListener.class)
 @Data
-@Table(name = "address")
+//natural key, PersonIngestionService upserts on it
+@Table(name = "address", uniqueConstraints = @UniqueConstraint(name = "address_natural_key", columnNames = {"id_country", "city", "street"}))
 public class Address {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,9 +1,11 @@
 package com.example.JavaSQL.model;
 
+import com.example.JavaSQL.cache.ReferenceDataListener;
 import jakarta.persistence.*;
 import lombok.Data;
 
 @Entity
+@EntityListeners(ReferenceDataListener.class)
 @Data
 @Table(name = "country")
 public class Country {
@@ -0,0 +1,29 @@
+package com.example.JavaSQL.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+//Maintained by the triggers in db/country_stats.sql, rebuilt by CountryStatsService.rebuild()
+@Entity
+@Data
+@Table(name = "country_stats")
+public class CountryStats {
+	@Id
+	private Long id_country;
+
+	@Column(nullable = false)
+	private Long persons;
+
+	@Column(nullable = false)
+	private Long students;
+
+	@Column(nullable = false)
+	private Long professors;
+}
+
+// create table country_stats(
+// id_country bigint primary key,
+// persons bigint not null,
+// students bigint not null,
+// professors bigint not null
+// );
@@ -2,6 +2,7 @@ package com.example.JavaSQL.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -11,12 +12,18 @@ import java.time.Instant;
 @Entity
 @EntityListeners(AuditingEntityListener.class)
 @Data
-@Table(name = "person")
+@Table(name = "person", indexes = @Index(name = "person_modification_date", columnList = "modification_date"))
 public class Person {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id_person;
 
+	//optimistic lock; rows inserted with plain SQL (SyntheticDataGenerator) get the column default
+	@Version
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	private Long version;
+
 	@ManyToOne(cascade = CascadeType.ALL)
 	@JoinColumn(nullable = false, name = "id_address")
 	private Address id_address;
@@ -0,0 +1,47 @@
+package com.example.JavaSQL.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+//Append-only, written by the triggers in db/person_change_log.sql, read through PersonChangeFeed
+@Entity
+@Immutable
+@Data
+@Table(name = "person_change_log", indexes = {
+		@Index(name = "person_change_log_tx", columnList = "tx, id_change"),
+		@Index(name = "person_change_log_changed_at", columnList = "changed_at")})
+public class PersonChange {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id_change;
+
+	//id of the writing transaction (pg_current_xact_id)
+	@Column(nullable = false)
+	private Long tx;
+
+	//person, student or professor; address or country when a move/rename affected the person
+	@Column(nullable = false, length = 16)
+	private String table_name;
+
+	//INSERT, UPDATE, DELETE or TRUNCATE
+	@Column(nullable = false, length = 8)
+	private String operation;
+
+	//null for TRUNCATE
+	private Long id_person;
+
+	@Column(nullable = false)
+	private Instant changed_at;
+}
+
+// create table person_change_log(
+// id_change bigint primary key generated by default as identity,
+// tx bigint not null,
+// table_name varchar(16) not null,
+// operation varchar(8) not null,
+// id_person bigint,
+// changed_at timestamp with time zone not null
+// );
@@ -2,6 +2,7 @@ package com.example.JavaSQL.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Data
@@ -11,6 +12,11 @@ public class Student {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id_student;
 
+	@Version
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	private Long version;
+
 	@OneToOne(cascade = CascadeType.ALL)
 	@JoinColumn(nullable = false, name = "id_person")
 	private Person id_person;
@@ -0,0 +1,5 @@
+package com.example.JavaSQL.model.projection;
+
+//persons modified in a period per country, and how many of them are students / professors
+public record CountryActivity(String country, Long persons, Long students, Long professors) {
+}
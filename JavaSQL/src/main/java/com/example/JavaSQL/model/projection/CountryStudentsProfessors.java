@@ -0,0 +1,4 @@
+package com.example.JavaSQL.model.projection;
+
+public record CountryStudentsProfessors(String country, Long students, Long professors) {
+}
@@ -0,0 +1,7 @@
+package com.example.JavaSQL.model.projection;
+
+import java.time.Instant;
+
+//studentNumber / professorNumber are null when the person isn't a student / professor
+public record ModifiedUser(String lastName, Instant modificationDate, Integer studentNumber, Integer professorNumber, String address) {
+}
@@ -0,0 +1,5 @@
+package com.example.JavaSQL.model.projection;
+
+//personType: STUDENT, PROFESSOR or UNKNOWN
+public record PersonByCountry(String country, String lastName, String personType) {
+}
@@ -0,0 +1,5 @@
+package com.example.JavaSQL.model.projection;
+
+//personType: STUDENT, PROFESSOR or UNKNOWN
+public record PersonWithType(String lastName, String personType) {
+}
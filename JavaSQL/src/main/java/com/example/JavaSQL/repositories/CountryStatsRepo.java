@@ -0,0 +1,42 @@
+package com.example.JavaSQL.repositories;
+
+import com.example.JavaSQL.model.CountryStats;
+import com.example.JavaSQL.model.projection.CountryStudentsProfessors;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CountryStatsRepo extends JpaRepository<CountryStats, Long> {
+
+	//same result as PersonRepo.students_and_professors_grouped_by_country, but reads one row per country
+	@Query(value = """
+			SELECT new com.example.JavaSQL.model.projection.CountryStudentsProfessors(c.name, cs.students, cs.professors)
+			FROM CountryStats cs
+			JOIN Country c ON c.id_country = cs.id_country
+			WHERE cs.students + cs.professors > 0
+			""")
+	List<CountryStudentsProfessors> students_and_professors_grouped_by_country();
+
+
+	@Modifying
+	@Query(nativeQuery = true, value = "DELETE FROM country_stats")
+	int deleteStats();
+
+
+	@Modifying
+	@Query(nativeQuery = true,
+			value = """
+					INSERT INTO country_stats(id_country, persons, students, professors)
+					SELECT a.id_country, COUNT(p.id_person), COUNT(s.id_student), COUNT(pr.id_professor)
+					FROM person p
+					JOIN address a ON a.id_address = p.id_address
+					LEFT JOIN student s ON s.id_person = p.id_person
+					LEFT JOIN professor pr ON pr.id_person = p.id_person
+					GROUP BY a.id_country
+					""")
+	int insertStats();
+}
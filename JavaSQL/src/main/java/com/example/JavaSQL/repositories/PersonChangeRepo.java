@@ -0,0 +1,51 @@
+package com.example.JavaSQL.repositories;
+
+import com.example.JavaSQL.model.PersonChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PersonChangeRepo extends JpaRepository<PersonChange, Long> {
+
+	//Changes after the (tx, id_change) watermark, limited to transactions older than the oldest one still running.
+	//Those can no longer gain rows, so a consumer never skips a change that commits late (PostgreSQL only).
+	@Query(nativeQuery = true,
+			value = """
+					SELECT * FROM person_change_log
+					WHERE (tx, id_change) > (:tx, :id)
+					AND tx < pg_snapshot_xmin(pg_current_snapshot())::text::bigint
+					ORDER BY tx, id_change
+					LIMIT :limit
+					""")
+	List<PersonChange> changesAfter(@Param("tx") long tx, @Param("id") long id, @Param("limit") int limit);
+
+	//the newest change changesAfter can hand out right now
+	@Query(nativeQuery = true,
+			value = """
+					SELECT * FROM person_change_log
+					WHERE tx < pg_snapshot_xmin(pg_current_snapshot())::text::bigint
+					ORDER BY tx DESC, id_change DESC
+					LIMIT 1
+					""")
+	Optional<PersonChange> latestStableChange();
+
+	//Drops changes written before `before`, except the newest stable one, so latestStableChange never falls back to nothing
+	@Modifying
+	@Query(nativeQuery = true,
+			value = """
+					DELETE FROM person_change_log
+					WHERE changed_at < :before
+					AND id_change <> (SELECT id_change FROM person_change_log
+					  WHERE tx < pg_snapshot_xmin(pg_current_snapshot())::text::bigint
+					  ORDER BY tx DESC, id_change DESC
+					  LIMIT 1)
+					""")
+	int deleteChangesBefore(@Param("before") Instant before);
+}
@@ -1,6 +1,10 @@
 package com.example.JavaSQL.repositories;
 
 import com.example.JavaSQL.model.Person;
+import com.example.JavaSQL.model.projection.CountryStudentsProfessors;
+import com.example.JavaSQL.model.projection.ModifiedUser;
+import com.example.JavaSQL.model.projection.PersonByCountry;
+import com.example.JavaSQL.model.projection.PersonWithType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -31,7 +35,7 @@ public interface PersonRepo extends JpaRepository<Person, Long> {
 
 
 	@Query(value = """
-			SELECT COUNT(s) as students, COUNT(pr) as professors, c.name as country
+			SELECT new com.example.JavaSQL.model.projection.CountryStudentsProfessors(c.name, COUNT(s), COUNT(pr))
 			FROM Person p
 			LEFT JOIN Student s ON p = s.id_person
 			LEFT JOIN Professor pr ON p = pr.id_person
@@ -40,26 +44,30 @@ public interface PersonRepo extends JpaRepository<Person, Long> {
 			GROUP BY c.name
 			HAVING COUNT(s) + COUNT(pr) > 0
 			""")
-	List<Object[]> students_and_professors_grouped_by_country();
+	List<CountryStudentsProfessors> students_and_professors_grouped_by_country();
 
 
-	@Query(value = """
-			SELECT p.last_name, p.modification_date, s.student_number, pr.professor_number, CONCAT(a.city, ', ', a.street) AS Address
+	String MODIFICATED_USERS = """
+			SELECT new com.example.JavaSQL.model.projection.ModifiedUser(
+			  p.last_name, p.modification_date, s.student_number, pr.professor_number, CONCAT(a.city, ', ', a.street))
 			FROM Person p
 			LEFT JOIN Student s ON s.id_person = p
 			LEFT JOIN Professor pr ON pr.id_person = p
 			JOIN Address a ON p.id_address = a
 			WHERE p.modification_date BETWEEN :from AND :to
-			""")
-	List<Object[]> modificated_users(@Param("from") Instant from, @Param("to") Instant to);
+			""";
+
+	//fully materialized, for large ranges use PersonReportService.streamModificatedUsers
+	@Query(value = MODIFICATED_USERS)
+	List<ModifiedUser> modificated_users(@Param("from") Instant from, @Param("to") Instant to);
 
 
 	@Query(value = """
-			SELECT c.name as Country, p.last_name, CASE
+			SELECT new com.example.JavaSQL.model.projection.PersonByCountry(c.name, p.last_name, CASE
 			  WHEN s.id_person IS NOT NULL THEN 'STUDENT'
 			  WHEN pr.id_person IS NOT NULL THEN 'PROFESSOR'
 			  ELSE 'UNKNOWN'
-			  END AS person_type
+			  END)
 			  FROM Person p
 			  LEFT JOIN Student s ON s.id_person = p
 			  LEFT JOIN Professor pr ON pr.id_person = p
@@ -67,6 +75,21 @@ public interface PersonRepo extends JpaRepository<Person, Long> {
 			  JOIN Country c ON a.id_country = c
 			  WHERE c.name = :country
 			""")
-	List<Object[]> groupPersonByCountry(@Param("country") String country);
+	List<PersonByCountry> groupPersonByCountry(@Param("country") String country);
+
+
+	//country already resolved to an id (ReferenceDataCache), so the Country join is skipped
+	@Query(value = """
+			SELECT new com.example.JavaSQL.model.projection.PersonWithType(p.last_name, CASE
+			  WHEN s.id_person IS NOT NULL THEN 'STUDENT'
+			  WHEN pr.id_person IS NOT NULL THEN 'PROFESSOR'
+			  ELSE 'UNKNOWN'
+			  END)
+			  FROM Person p
+			  LEFT JOIN Student s ON s.id_person = p
+			  LEFT JOIN Professor pr ON pr.id_person = p
+			  WHERE p.id_address.id_country.id_country = :idCountry
+			""")
+	List<PersonWithType> personsByCountryId(@Param("idCountry") Long idCountry);
 
 }
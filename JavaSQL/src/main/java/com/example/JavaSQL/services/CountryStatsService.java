@@ -0,0 +1,64 @@
+package com.example.JavaSQL.services;
+
+import com.example.JavaSQL.cache.ReferenceDataCache;
+import com.example.JavaSQL.cache.ReferenceDataCache.CountryRef;
+import com.example.JavaSQL.model.projection.CountryStudentsProfessors;
+import com.example.JavaSQL.repositories.CountryStatsRepo;
+import com.example.JavaSQL.sharding.ShardedPersonStore;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Per-country person/student/professor counts kept in country_stats.
+ * On PostgreSQL the table is maintained incrementally by triggers, on other databases
+ * (H2 in benchmarks) it is only as fresh as the last {@link #rebuild()}.
+ * With sharding enabled the persons aren't in this database, the counts are aggregated from the shards instead.
+ */
+@Service
+public class CountryStatsService {
+
+	private final CountryStatsRepo countryStatsRepo;
+	private final TriggerInstaller triggerInstaller;
+	private final ReferenceDataCache referenceDataCache;
+	//null unless university.sharding.enabled
+	private final ShardedPersonStore shards;
+	private boolean incremental;
+
+	public CountryStatsService(CountryStatsRepo countryStatsRepo,
+							   TriggerInstaller triggerInstaller,
+							   ReferenceDataCache referenceDataCache,
+							   Optional<ShardedPersonStore> shardedPersonStore) {
+		this.countryStatsRepo = countryStatsRepo;
+		this.triggerInstaller = triggerInstaller;
+		this.referenceDataCache = referenceDataCache;
+		this.shards = shardedPersonStore.orElse(null);
+	}
+
+	@PostConstruct
+	void installTriggers() throws IOException {
+		incremental = triggerInstaller.install("db/country_stats.sql");
+	}
+
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	public List<CountryStudentsProfessors> studentsAndProfessorsGroupedByCountry() {
+		if (shards != null) {
+			return shards.studentsAndProfessorsGroupedByCountry(idCountry -> referenceDataCache.country(idCountry).map(CountryRef::name));
+		}
+		return countryStatsRepo.students_and_professors_grouped_by_country();
+	}
+
+	//full recount from person/student/professor, reconciles any drift
+	@Transactional
+	public int rebuild() {
+		countryStatsRepo.deleteStats();
+		return countryStatsRepo.insertStats();
+	}
+}
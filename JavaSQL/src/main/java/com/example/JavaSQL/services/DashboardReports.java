@@ -0,0 +1,38 @@
+package com.example.JavaSQL.services;
+
+import com.example.JavaSQL.model.projection.CountryStudentsProfessors;
+import com.example.JavaSQL.model.projection.ModifiedUser;
+import com.example.JavaSQL.model.projection.PersonByCountry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+//The PersonRepo reports as ReportEngine jobs, independent of each other so they can run at the same time
+@Service
+@RequiredArgsConstructor
+public class DashboardReports {
+
+	private final ReportEngine reportEngine;
+	private final CountryStatsService countryStatsService;
+	private final PersonReportService personReportService;
+
+	public CompletableFuture<List<CountryStudentsProfessors>> studentsAndProfessorsByCountry() {
+		return reportEngine.run("students-and-professors-by-country",
+				() -> List.copyOf(countryStatsService.studentsAndProfessorsGroupedByCountry()));
+	}
+
+	//every caller brings its own range, a snapshot per range would never be hit again.
+	//Rows stream through the server-side cursor into the consumer, on the report thread; completes with the row count
+	public CompletableFuture<Long> modifiedUsers(Instant from, Instant to, Consumer<ModifiedUser> consumer) {
+		return reportEngine.execute(() -> personReportService.forEachModificatedUser(from, to, consumer));
+	}
+
+	public CompletableFuture<List<PersonByCountry>> personsByCountry(String country) {
+		return reportEngine.run("persons-by-country:" + country,
+				() -> List.copyOf(personReportService.groupPersonByCountry(country)));
+	}
+}
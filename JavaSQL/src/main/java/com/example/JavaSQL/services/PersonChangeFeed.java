@@ -0,0 +1,111 @@
+package com.example.JavaSQL.services;
+
+import com.example.JavaSQL.model.PersonChange;
+import com.example.JavaSQL.repositories.PersonChangeRepo;
+import com.fasterxml.jackson.annotation.JsonValue;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Incremental pull of person/student/professor changes from person_change_log.
+ * A consumer keeps the returned watermark and passes it back, so a sync costs O(changes) instead of a
+ * modification_date scan. Only available where the change log triggers run (PostgreSQL).
+ * Changes older than university.change-feed.retention are pruned; a consumer whose watermark is older than that
+ * has to resynchronise from the tables.
+ */
+@Service
+public class PersonChangeFeed {
+
+	public record Watermark(long tx, long id) {
+
+		public static final Watermark START = new Watermark(0, 0);
+
+		//"<tx>-<id>", the form handed out by the REST API
+		public static Watermark parse(String value) {
+			int separator = value.indexOf('-');
+			if (separator < 0) {
+				throw new IllegalArgumentException("watermark must look like <tx>-<id>: " + value);
+			}
+			return new Watermark(Long.parseLong(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+		}
+
+		@JsonValue
+		@Override
+		public String toString() {
+			return tx + "-" + id;
+		}
+	}
+
+	public record ChangeBatch(List<PersonChange> changes, Watermark watermark) {
+	}
+
+	private final PersonChangeRepo personChangeRepo;
+	private final TriggerInstaller triggerInstaller;
+	private final int maxBatch;
+	private final Duration retention;
+	private boolean available;
+
+	public PersonChangeFeed(PersonChangeRepo personChangeRepo, TriggerInstaller triggerInstaller,
+							@Value("${university.change-feed.max-batch:1000}") int maxBatch,
+							@Value("${university.change-feed.retention:P7D}") Duration retention) {
+		this.personChangeRepo = personChangeRepo;
+		this.triggerInstaller = triggerInstaller;
+		this.maxBatch = maxBatch;
+		this.retention = retention;
+	}
+
+	@PostConstruct
+	void installTriggers() throws IOException {
+		available = triggerInstaller.install("db/person_change_log.sql");
+	}
+
+	public boolean isAvailable() {
+		return available;
+	}
+
+	@Transactional(readOnly = true)
+	public ChangeBatch changesSince(Watermark after, int limit) {
+		if (!available) {
+			throw new IllegalStateException("person_change_log is only maintained on PostgreSQL");
+		}
+		if (limit < 1) {
+			throw new IllegalArgumentException("limit must be at least 1: " + limit);
+		}
+		List<PersonChange> changes = personChangeRepo.changesAfter(after.tx(), after.id(), Math.min(limit, maxBatch));
+		if (changes.isEmpty()) {
+			return new ChangeBatch(changes, after);
+		}
+		PersonChange last = changes.getLast();
+		return new ChangeBatch(changes, new Watermark(last.getTx(), last.getId_change()));
+	}
+
+	//watermark after everything changesSince would currently return; moves whenever person data changed
+	@Transactional(readOnly = true)
+	public Watermark latest() {
+		if (!available) {
+			throw new IllegalStateException("person_change_log is only maintained on PostgreSQL");
+		}
+		return personChangeRepo.latestStableChange()
+				.map(change -> new Watermark(change.getTx(), change.getId_change()))
+				.orElse(Watermark.START);
+	}
+
+	//returns the number of pruned changes
+	@Scheduled(initialDelayString = "${university.change-feed.prune-interval:PT1H}",
+			fixedDelayString = "${university.change-feed.prune-interval:PT1H}")
+	@Transactional
+	public int prune() {
+		if (!available) {
+			return 0;
+		}
+		return personChangeRepo.deleteChangesBefore(Instant.now().minus(retention));
+	}
+}
@@ -0,0 +1,271 @@
+package com.example.JavaSQL.services;
+
+import com.example.JavaSQL.cache.ReferenceDataCache;
+import com.example.JavaSQL.sharding.ShardedPersonStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Bulk load of persons given with their country and address by value.
+ * Country (by name) and Address (by id_country, city, street) are resolved with one set-based upsert and one lookup
+ * per batch for the keys not seen before in this ingest, so reference writes grow with the distinct addresses,
+ * not with the persons. Persons, students and professors are then inserted as JDBC batches of
+ * university.ingestion.batch-size persons. Every person is validated before the first statement and the whole
+ * ingest is one transaction, so a caller that gets an error knows that nothing was stored.
+ * With sharding enabled the countries are resolved (and committed) in the main database first, then addresses and
+ * persons go to the shards of their countries, in one transaction per shard (see
+ * {@link ShardedPersonStore#writeInTransactions}). A failed write still stores no person, only a commit that fails
+ * after another shard committed can leave part of the ingest behind.
+ */
+@Service
+public class PersonIngestionService {
+
+	//studentNumber / professorNumber null when the person isn't one
+	public record PersonIngest(String lastName, String country, String city, String street,
+							   Integer studentNumber, Integer professorNumber) {
+	}
+
+	//referenceStatements: upserts + lookups issued for country and address
+	public record IngestionResult(long persons, long students, long professors,
+								  long countriesInserted, long addressesInserted, long referenceStatements,
+								  Duration elapsed) {
+	}
+
+	private record AddressKey(long idCountry, String city, String street) {
+	}
+
+	//resolved ids, kept for the whole ingest
+	private static final class Resolved {
+		final Map<String, Long> countries = new HashMap<>();
+		final Map<AddressKey, Long> addresses = new HashMap<>();
+		long countriesInserted;
+		long addressesInserted;
+		long statements;
+	}
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final ReferenceDataCache referenceDataCache;
+	//null unless university.sharding.enabled
+	private final ShardedPersonStore shards;
+	private final int batchSize;
+
+	public PersonIngestionService(JdbcTemplate jdbcTemplate,
+								  PlatformTransactionManager transactionManager,
+								  ReferenceDataCache referenceDataCache,
+								  Optional<ShardedPersonStore> shardedPersonStore,
+								  @Value("${university.ingestion.batch-size:1000}") int batchSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.referenceDataCache = referenceDataCache;
+		this.shards = shardedPersonStore.orElse(null);
+		this.batchSize = batchSize;
+	}
+
+	public IngestionResult ingest(List<PersonIngest> persons) {
+		for (int i = 0; i < persons.size(); i++) {
+			validate(i, persons.get(i));
+		}
+		long start = System.nanoTime();
+		boolean postgres = isPostgres(jdbcTemplate);
+		Resolved resolved = new Resolved();
+		long[] counts = new long[3];
+
+		if (shards == null) {
+			transactionTemplate.executeWithoutResult(status -> {
+				for (List<PersonIngest> batch : batches(persons)) {
+					resolveCountries(batch, resolved, postgres);
+					resolveAddresses(jdbcTemplate, batch, resolved, postgres);
+					insertPersons(jdbcTemplate, batch, resolved, counts);
+				}
+			});
+		} else {
+			ingestSharded(persons, resolved, postgres, counts);
+		}
+		//native inserts don't go through ReferenceDataListener
+		if (resolved.countriesInserted + resolved.addressesInserted > 0) {
+			referenceDataCache.invalidate();
+		}
+		return new IngestionResult(counts[0], counts[1], counts[2], resolved.countriesInserted, resolved.addressesInserted,
+				resolved.statements, Duration.ofNanos(System.nanoTime() - start));
+	}
+
+	private void ingestSharded(List<PersonIngest> persons, Resolved resolved, boolean postgres, long[] counts) {
+		transactionTemplate.executeWithoutResult(status -> batches(persons).forEach(batch -> resolveCountries(batch, resolved, postgres)));
+		//the countries stay even if a shard fails, so the cache has to see them now
+		if (resolved.countriesInserted > 0) {
+			referenceDataCache.invalidate();
+		}
+		Map<Integer, List<PersonIngest>> byShard = new HashMap<>();
+		for (PersonIngest person : persons) {
+			byShard.computeIfAbsent(shards.shardOf(resolved.countries.get(person.country())), shard -> new ArrayList<>()).add(person);
+		}
+		shards.writeInTransactions(byShard.keySet(), (shard, shardJdbcTemplate) -> {
+			boolean postgresShard = isPostgres(shardJdbcTemplate);
+			for (List<PersonIngest> batch : batches(byShard.get(shard))) {
+				resolveAddresses(shardJdbcTemplate, batch, resolved, postgresShard);
+				insertPersons(shardJdbcTemplate, batch, resolved, counts);
+			}
+		});
+	}
+
+	private List<List<PersonIngest>> batches(List<PersonIngest> persons) {
+		List<List<PersonIngest>> batches = new ArrayList<>();
+		for (int from = 0; from < persons.size(); from += batchSize) {
+			batches.add(persons.subList(from, Math.min(from + batchSize, persons.size())));
+		}
+		return batches;
+	}
+
+	private void resolveCountries(List<PersonIngest> batch, Resolved resolved, boolean postgres) {
+		Set<String> missing = new LinkedHashSet<>();
+		for (PersonIngest person : batch) {
+			if (!resolved.countries.containsKey(person.country())) {
+				missing.add(person.country());
+			}
+		}
+		if (missing.isEmpty()) {
+			return;
+		}
+		String values = rows(missing.size(), "(CAST(? AS varchar))");
+		resolved.countriesInserted += jdbcTemplate.update(postgres
+						? "INSERT INTO country(name) VALUES %s ON CONFLICT (name) DO NOTHING".formatted(values)
+						: """
+						MERGE INTO country c USING (VALUES %s) v(name) ON c.name = v.name
+						WHEN NOT MATCHED THEN INSERT (name) VALUES (v.name)
+						""".formatted(values),
+				missing.toArray());
+		jdbcTemplate.query("""
+						SELECT c.id_country, c.name FROM country c
+						JOIN (VALUES %s) v(name) ON c.name = v.name
+						""".formatted(values),
+				rs -> {
+					resolved.countries.put(rs.getString(2), rs.getLong(1));
+				},
+				missing.toArray());
+		resolved.statements += 2;
+	}
+
+	private void resolveAddresses(JdbcTemplate jdbcTemplate, List<PersonIngest> batch, Resolved resolved, boolean postgres) {
+		Set<AddressKey> missing = new LinkedHashSet<>();
+		for (PersonIngest person : batch) {
+			AddressKey key = addressKey(person, resolved);
+			if (!resolved.addresses.containsKey(key)) {
+				missing.add(key);
+			}
+		}
+		if (missing.isEmpty()) {
+			return;
+		}
+		String values = rows(missing.size(), "(CAST(? AS bigint), CAST(? AS varchar), CAST(? AS varchar))");
+		Object[] args = missing.stream()
+				.flatMap(key -> List.<Object>of(key.idCountry(), key.city(), key.street()).stream())
+				.toArray();
+		resolved.addressesInserted += jdbcTemplate.update(postgres
+						? "INSERT INTO address(id_country, city, street) VALUES %s ON CONFLICT (id_country, city, street) DO NOTHING".formatted(values)
+						: """
+						MERGE INTO address a USING (VALUES %s) v(id_country, city, street)
+						ON a.id_country = v.id_country AND a.city = v.city AND a.street = v.street
+						WHEN NOT MATCHED THEN INSERT (id_country, city, street) VALUES (v.id_country, v.city, v.street)
+						""".formatted(values),
+				args);
+		jdbcTemplate.query("""
+						SELECT a.id_address, a.id_country, a.city, a.street FROM address a
+						JOIN (VALUES %s) v(id_country, city, street)
+						ON a.id_country = v.id_country AND a.city = v.city AND a.street = v.street
+						""".formatted(values),
+				rs -> {
+					resolved.addresses.put(new AddressKey(rs.getLong(2), rs.getString(3), rs.getString(4)), rs.getLong(1));
+				},
+				args);
+		resolved.statements += 2;
+	}
+
+	private void insertPersons(JdbcTemplate jdbcTemplate, List<PersonIngest> batch, Resolved resolved, long[] counts) {
+		Timestamp now = Timestamp.from(Instant.now());
+		KeyHolder keys = new GeneratedKeyHolder();
+		jdbcTemplate.batchUpdate(
+				connection -> connection.prepareStatement(
+						"INSERT INTO person(id_address, last_name, creation_date, modification_date) VALUES (?, ?, ?, ?)",
+						new String[]{"id_person"}),
+				new BatchPreparedStatementSetter() {
+					@Override
+					public void setValues(PreparedStatement ps, int i) throws SQLException {
+						PersonIngest person = batch.get(i);
+						ps.setLong(1, resolved.addresses.get(addressKey(person, resolved)));
+						ps.setString(2, person.lastName());
+						ps.setTimestamp(3, now);
+						ps.setTimestamp(4, now);
+					}
+
+					@Override
+					public int getBatchSize() {
+						return batch.size();
+					}
+				},
+				keys);
+		List<Map<String, Object>> ids = keys.getKeyList();
+
+		List<Object[]> students = new ArrayList<>();
+		List<Object[]> professors = new ArrayList<>();
+		for (int i = 0; i < batch.size(); i++) {
+			PersonIngest person = batch.get(i);
+			Object idPerson = ids.get(i).values().iterator().next();
+			if (person.studentNumber() != null) {
+				students.add(new Object[]{idPerson, person.studentNumber()});
+			}
+			if (person.professorNumber() != null) {
+				professors.add(new Object[]{idPerson, person.professorNumber()});
+			}
+		}
+		if (!students.isEmpty()) {
+			jdbcTemplate.batchUpdate("INSERT INTO student(id_person, student_number) VALUES (?, ?)", students);
+		}
+		if (!professors.isEmpty()) {
+			jdbcTemplate.batchUpdate("INSERT INTO professor(id_person, professor_number) VALUES (?, ?)", professors);
+		}
+		counts[0] += batch.size();
+		counts[1] += students.size();
+		counts[2] += professors.size();
+	}
+
+	private static AddressKey addressKey(PersonIngest person, Resolved resolved) {
+		return new AddressKey(resolved.countries.get(person.country()), person.city(), person.street());
+	}
+
+	private static void validate(int index, PersonIngest person) {
+		if (person == null || person.lastName() == null || person.country() == null || person.city() == null || person.street() == null) {
+			throw new IllegalArgumentException("person " + index + ": lastName, country, city and street are required: " + person);
+		}
+	}
+
+	private static String rows(int count, String row) {
+		return String.join(", ", Collections.nCopies(count, row));
+	}
+
+	private static boolean isPostgres(JdbcTemplate jdbcTemplate) {
+		return "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+				connection.getMetaData().getDatabaseProductName()));
+	}
+}
@@ -0,0 +1,86 @@
+package com.example.JavaSQL.services;
+
+import com.example.JavaSQL.cache.ReferenceDataCache;
+import com.example.JavaSQL.model.projection.ModifiedUser;
+import com.example.JavaSQL.model.projection.PersonByCountry;
+import com.example.JavaSQL.model.projection.PersonWithType;
+import com.example.JavaSQL.repositories.PersonRepo;
+import com.example.JavaSQL.sharding.ShardedPersonStore;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+public class PersonReportService {
+
+	private final EntityManager entityManager;
+	private final PersonRepo personRepo;
+	private final ReferenceDataCache referenceDataCache;
+	//null unless university.sharding.enabled, then the persons are read from the shards
+	private final ShardedPersonStore shards;
+	private final int fetchSize;
+
+	public PersonReportService(EntityManager entityManager,
+							   PersonRepo personRepo,
+							   ReferenceDataCache referenceDataCache,
+							   Optional<ShardedPersonStore> shardedPersonStore,
+							   @Value("${university.reports.fetch-size:500}") int fetchSize) {
+		this.entityManager = entityManager;
+		this.personRepo = personRepo;
+		this.referenceDataCache = referenceDataCache;
+		this.shards = shardedPersonStore.orElse(null);
+		this.fetchSize = fetchSize;
+	}
+
+	//same result as PersonRepo.groupPersonByCountry, the country name is resolved in memory instead of joined
+	public List<PersonByCountry> groupPersonByCountry(String country) {
+		return referenceDataCache.countryId(country)
+				.map(idCountry -> personsByCountryId(idCountry).stream()
+						.map(person -> new PersonByCountry(country, person.lastName(), person.personType()))
+						.toList())
+				.orElse(List.of());
+	}
+
+	//sharded: only the country's shard is queried
+	private List<PersonWithType> personsByCountryId(Long idCountry) {
+		return shards != null ? shards.personsByCountryId(idCountry) : personRepo.personsByCountryId(idCountry);
+	}
+
+	/**
+	 * Rows of {@link PersonRepo#modificated_users} read through a server-side cursor, fetchSize rows at a time.
+	 * Has to be called inside a transaction (postgres only uses a cursor when autocommit is off)
+	 * and the stream has to be closed by the caller.
+	 */
+	public Stream<ModifiedUser> streamModificatedUsers(Instant from, Instant to) {
+		return entityManager.createQuery(PersonRepo.MODIFICATED_USERS, ModifiedUser.class)
+				.setParameter("from", from)
+				.setParameter("to", to)
+				.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+				.setHint(HibernateHints.HINT_READ_ONLY, true)
+				.getResultStream();
+	}
+
+	//sharded: the shards are read one after the other, each through a cursor of its own
+	@Transactional(readOnly = true)
+	public long forEachModificatedUser(Instant from, Instant to, Consumer<ModifiedUser> consumer) {
+		if (shards != null) {
+			return shards.forEachModifiedUser(from, to, consumer);
+		}
+		long rows = 0;
+		try (Stream<ModifiedUser> stream = streamModificatedUsers(from, to)) {
+			for (ModifiedUser row : (Iterable<ModifiedUser>) stream::iterator) {
+				consumer.accept(row);
+				rows++;
+			}
+		}
+		return rows;
+	}
+}
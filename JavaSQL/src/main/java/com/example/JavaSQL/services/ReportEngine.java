@@ -0,0 +1,147 @@
+package com.example.JavaSQL.services;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs reports in parallel on a bounded pool, each in its own read-only transaction.
+ * The latest result of every report is kept as a snapshot and served until it is older than
+ * university.reports.staleness; concurrent requests for the same report share one execution.
+ * At most university.reports.max-snapshots are kept, the oldest is dropped first, so reports keyed by
+ * caller input stay bounded. One-off parameterised reports go through {@link #execute} and keep no snapshot.
+ * Report results must be immutable (List.copyOf, records), they are handed to every caller.
+ */
+@Service
+public class ReportEngine implements DisposableBean {
+
+	public record Snapshot<T>(T value, Instant takenAt) {
+	}
+
+	private final ThreadPoolExecutor executor;
+	private final TransactionTemplate readOnlyTransaction;
+	private final Duration staleness;
+	private final int maxSnapshots;
+	private final Clock clock;
+
+	private final ConcurrentHashMap<String, Snapshot<?>> snapshots = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, CompletableFuture<?>> running = new ConcurrentHashMap<>();
+
+	@Autowired
+	public ReportEngine(PlatformTransactionManager transactionManager,
+						@Value("${university.reports.threads:4}") int threads,
+						@Value("${university.reports.queue-capacity:100}") int queueCapacity,
+						@Value("${university.reports.staleness:PT30S}") Duration staleness,
+						@Value("${university.reports.max-snapshots:64}") int maxSnapshots) {
+		this(transactionManager, threads, queueCapacity, staleness, maxSnapshots, Clock.systemUTC());
+	}
+
+	ReportEngine(PlatformTransactionManager transactionManager, int threads, int queueCapacity,
+				 Duration staleness, int maxSnapshots, Clock clock) {
+		if (maxSnapshots < 1) {
+			throw new IllegalArgumentException("university.reports.max-snapshots must be at least 1: " + maxSnapshots);
+		}
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				runnable -> {
+					Thread thread = new Thread(runnable, "report-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		this.staleness = staleness;
+		this.maxSnapshots = maxSnapshots;
+		this.clock = clock;
+	}
+
+	//snapshot if it is fresh enough, otherwise a (shared) new execution
+	@SuppressWarnings("unchecked")
+	public <T> CompletableFuture<T> run(String name, Supplier<T> report) {
+		Snapshot<T> snapshot = (Snapshot<T>) snapshots.get(name);
+		if (snapshot != null && snapshot.takenAt().plus(staleness).isAfter(clock.instant())) {
+			return CompletableFuture.completedFuture(snapshot.value());
+		}
+		return refresh(name, report);
+	}
+
+	//the execution is published before it is started, so a report that finishes at once cannot race its own registration
+	@SuppressWarnings("unchecked")
+	public <T> CompletableFuture<T> refresh(String name, Supplier<T> report) {
+		CompletableFuture<T> execution = new CompletableFuture<>();
+		CompletableFuture<?> existing = running.putIfAbsent(name, execution);
+		if (existing != null) {
+			return (CompletableFuture<T>) existing;
+		}
+		try {
+			CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> report.get()), executor)
+					.whenComplete((value, error) -> {
+						if (error == null) {
+							keep(name, new Snapshot<>(value, clock.instant()));
+						}
+						running.remove(name, execution);
+						if (error == null) {
+							execution.complete(value);
+						} else {
+							execution.completeExceptionally(error);
+						}
+					});
+		} catch (RejectedExecutionException e) {
+			running.remove(name, execution);
+			execution.completeExceptionally(e);
+		}
+		return execution;
+	}
+
+	//on the report pool and in a read-only transaction, but neither shared nor kept as a snapshot
+	public <T> CompletableFuture<T> execute(Supplier<T> report) {
+		return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> report.get()), executor);
+	}
+
+	public <T> Snapshot<T> snapshot(String name) {
+		@SuppressWarnings("unchecked")
+		Snapshot<T> snapshot = (Snapshot<T>) snapshots.get(name);
+		return snapshot;
+	}
+
+	private void keep(String name, Snapshot<?> snapshot) {
+		snapshots.put(name, snapshot);
+		while (snapshots.size() > maxSnapshots) {
+			Optional<Map.Entry<String, Snapshot<?>>> oldest = snapshots.entrySet().stream()
+					.filter(entry -> !entry.getKey().equals(name))
+					.min(Comparator.comparing(entry -> entry.getValue().takenAt()));
+			if (oldest.isEmpty()) {
+				return;
+			}
+			snapshots.remove(oldest.get().getKey(), oldest.get().getValue());
+		}
+	}
+
+	public void invalidate(String name) {
+		snapshots.remove(name);
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+}
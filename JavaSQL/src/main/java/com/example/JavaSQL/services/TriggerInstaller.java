@@ -0,0 +1,50 @@
+package com.example.JavaSQL.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Installs the PostgreSQL trigger scripts under db/ at startup, or - with university.db.triggers=migrated -
+ * trusts that the Flyway schema already contains them.
+ */
+@Component
+@DependsOn("entityManagerFactory")  //the schema has to exist before the triggers are installed
+public class TriggerInstaller {
+
+	public enum Mode {
+		//PostgreSQL only, the scripts are re-run on every start
+		INSTALL,
+		//already part of the migrated schema, nothing to do at startup
+		MIGRATED
+	}
+
+	private final JdbcTemplate jdbcTemplate;
+	private final Mode mode;
+
+	public TriggerInstaller(JdbcTemplate jdbcTemplate, @Value("${university.db.triggers:install}") Mode mode) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.mode = mode;
+	}
+
+	//returns whether the triggers are active
+	public boolean install(String script) throws IOException {
+		if (mode == Mode.MIGRATED) {
+			return true;
+		}
+		String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+				connection.getMetaData().getDatabaseProductName());
+		if (!"PostgreSQL".equals(database)) {
+			return false;
+		}
+		//the pg driver runs the whole script at once, dollar-quoted function bodies included
+		jdbcTemplate.execute(new ClassPathResource(script).getContentAsString(StandardCharsets.UTF_8));
+		return true;
+	}
+}
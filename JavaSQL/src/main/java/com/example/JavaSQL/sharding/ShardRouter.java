@@ -0,0 +1,32 @@
+package com.example.JavaSQL.sharding;
+
+import java.util.Map;
+
+//Address.id_country is the shard key: a country's addresses, persons, students and professors live on one shard
+public class ShardRouter {
+
+	private final int shards;
+	private final Map<Long, Integer> placement;
+
+	public ShardRouter(int shards, Map<Long, Integer> placement) {
+		if (shards < 1) {
+			throw new IllegalArgumentException("at least one shard is needed");
+		}
+		placement.forEach((country, shard) -> {
+			if (shard < 0 || shard >= shards) {
+				throw new IllegalArgumentException("country " + country + " placed on missing shard " + shard);
+			}
+		});
+		this.shards = shards;
+		this.placement = Map.copyOf(placement);
+	}
+
+	public int shardOf(long idCountry) {
+		Integer pinned = placement.get(idCountry);
+		return pinned != null ? pinned : Math.floorMod(Long.hashCode(idCountry), shards);
+	}
+
+	public int shards() {
+		return shards;
+	}
+}
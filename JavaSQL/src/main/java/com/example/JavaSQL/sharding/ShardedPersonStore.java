@@ -0,0 +1,206 @@
+package com.example.JavaSQL.sharding;
+
+import com.example.JavaSQL.model.projection.CountryStudentsProfessors;
+import com.example.JavaSQL.model.projection.ModifiedUser;
+import com.example.JavaSQL.model.projection.PersonWithType;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Address, person, student and professor rows spread over several databases by {@link ShardRouter}: a country's rows
+ * live on one shard only. With sharding enabled the shards are the system of record for them, PersonIngestionService
+ * writes through {@link #writeInTransactions} and the person reports read from here. Country stays in the main database
+ * (reference data, resolved through ReferenceDataCache), the shards only carry its id. Identities are strided per shard,
+ * so ids are unique across shards; the other unique constraints (student_number, ...) only hold within a shard.
+ */
+public class ShardedPersonStore implements Closeable {
+
+	private final List<DataSource> dataSources;
+	private final List<JdbcTemplate> shards;
+	private final List<DataSourceTransactionManager> transactionManagers;
+	private final ShardRouter router;
+	private final int fetchSize;
+	//queries on different shards run at the same time
+	private final ExecutorService fanOut = Executors.newVirtualThreadPerTaskExecutor();
+
+	public ShardedPersonStore(List<DataSource> dataSources, ShardRouter router, int fetchSize) {
+		if (dataSources.size() != router.shards()) {
+			throw new IllegalArgumentException(dataSources.size() + " shard databases for " + router.shards() + " shards");
+		}
+		this.dataSources = List.copyOf(dataSources);
+		this.shards = dataSources.stream().map(JdbcTemplate::new).toList();
+		this.transactionManagers = dataSources.stream().map(DataSourceTransactionManager::new).toList();
+		this.router = router;
+		this.fetchSize = fetchSize;
+	}
+
+	//db/shard-schema.sql, idempotent
+	public void initializeSchema() {
+		String script;
+		try {
+			script = new ClassPathResource("db/shard-schema.sql").getContentAsString(StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		for (int shard = 0; shard < dataSources.size(); shard++) {
+			String shardScript = script.replace("{start}", String.valueOf(shard + 1)).replace("{stride}", String.valueOf(dataSources.size()));
+			new ResourceDatabasePopulator(new ByteArrayResource(shardScript.getBytes(StandardCharsets.UTF_8)))
+					.execute(dataSources.get(shard));
+		}
+	}
+
+	public int shardOf(long idCountry) {
+		return router.shardOf(idCountry);
+	}
+
+	/**
+	 * Runs {@code work} on each of the given shards, every shard in a transaction of its own. The transactions are
+	 * committed only once the work succeeded on all of them, a failure rolls every one of them back. There is no
+	 * two-phase commit: a commit failing after another shard committed leaves that shard's rows in place.
+	 */
+	public void writeInTransactions(Collection<Integer> shardNumbers, BiConsumer<Integer, JdbcTemplate> work) {
+		List<Integer> ordered = shardNumbers.stream().distinct().sorted().toList();
+		//transactions of different DataSources can be open on one thread at a time, they are completed in reverse order
+		List<TransactionStatus> open = new ArrayList<>();
+		try {
+			for (int shard : ordered) {
+				open.add(transactionManagers.get(shard).getTransaction(new DefaultTransactionDefinition()));
+				work.accept(shard, shards.get(shard));
+			}
+		} catch (RuntimeException | Error e) {
+			for (int i = open.size() - 1; i >= 0; i--) {
+				transactionManagers.get(ordered.get(i)).rollback(open.get(i));
+			}
+			throw e;
+		}
+		for (int i = open.size() - 1; i >= 0; i--) {
+			transactionManagers.get(ordered.get(i)).commit(open.get(i));
+		}
+	}
+
+	//PersonRepo.personsByCountryId, answered by the one shard that holds the country
+	public List<PersonWithType> personsByCountryId(long idCountry) {
+		return shards.get(router.shardOf(idCountry)).query("""
+						SELECT p.last_name, CASE
+						  WHEN s.id_person IS NOT NULL THEN 'STUDENT'
+						  WHEN pr.id_person IS NOT NULL THEN 'PROFESSOR'
+						  ELSE 'UNKNOWN'
+						  END
+						FROM person p
+						LEFT JOIN student s ON s.id_person = p.id_person
+						LEFT JOIN professor pr ON pr.id_person = p.id_person
+						JOIN address a ON a.id_address = p.id_address
+						WHERE a.id_country = ?
+						""",
+				(rs, rowNum) -> new PersonWithType(rs.getString(1), rs.getString(2)),
+				idCountry);
+	}
+
+	/**
+	 * PersonRepo.students_and_professors_grouped_by_country: partial counts from every shard in parallel, summed per
+	 * country. Countries {@code countryName} doesn't know are left out.
+	 */
+	public List<CountryStudentsProfessors> studentsAndProfessorsGroupedByCountry(Function<Long, Optional<String>> countryName) {
+		List<List<Object[]>> partials = onEveryShard(shard -> shard.query("""
+						SELECT a.id_country, COUNT(s.id_student), COUNT(pr.id_professor)
+						FROM person p
+						LEFT JOIN student s ON s.id_person = p.id_person
+						LEFT JOIN professor pr ON pr.id_person = p.id_person
+						JOIN address a ON a.id_address = p.id_address
+						GROUP BY a.id_country
+						""",
+				(rs, rowNum) -> new Object[]{rs.getLong(1), rs.getLong(2), rs.getLong(3)}));
+
+		Map<Long, long[]> merged = new HashMap<>();
+		for (List<Object[]> partial : partials) {
+			for (Object[] row : partial) {
+				long[] counts = merged.computeIfAbsent((Long) row[0], idCountry -> new long[2]);
+				counts[0] += (Long) row[1];
+				counts[1] += (Long) row[2];
+			}
+		}
+		//HAVING COUNT(s) + COUNT(pr) > 0 only holds for the merged counts
+		List<CountryStudentsProfessors> result = new ArrayList<>();
+		merged.forEach((idCountry, counts) -> {
+			if (counts[0] + counts[1] > 0) {
+				countryName.apply(idCountry).ifPresent(name -> result.add(new CountryStudentsProfessors(name, counts[0], counts[1])));
+			}
+		});
+		result.sort(Comparator.comparing(CountryStudentsProfessors::country));
+		return result;
+	}
+
+	//PersonRepo.modificated_users, shard after shard, each read through a cursor of fetchSize rows; returns the row count
+	public long forEachModifiedUser(Instant from, Instant to, Consumer<ModifiedUser> consumer) {
+		long rows = 0;
+		for (int shard = 0; shard < shards.size(); shard++) {
+			JdbcTemplate reader = new JdbcTemplate(dataSources.get(shard));
+			reader.setFetchSize(fetchSize);
+			TransactionTemplate readOnly = new TransactionTemplate(transactionManagers.get(shard));
+			//postgres only uses a cursor when autocommit is off
+			readOnly.setReadOnly(true);
+			long[] shardRows = {0};
+			readOnly.executeWithoutResult(status -> reader.query("""
+							SELECT p.last_name, p.modification_date, s.student_number, pr.professor_number, CONCAT(a.city, ', ', a.street)
+							FROM person p
+							LEFT JOIN student s ON s.id_person = p.id_person
+							LEFT JOIN professor pr ON pr.id_person = p.id_person
+							JOIN address a ON a.id_address = p.id_address
+							WHERE p.modification_date BETWEEN ? AND ?
+							""",
+					rs -> {
+						Timestamp modified = rs.getTimestamp(2);
+						consumer.accept(new ModifiedUser(rs.getString(1), modified == null ? null : modified.toInstant(),
+								rs.getObject(3, Integer.class), rs.getObject(4, Integer.class), rs.getString(5)));
+						shardRows[0]++;
+					},
+					Timestamp.from(from), Timestamp.from(to)));
+			rows += shardRows[0];
+		}
+		return rows;
+	}
+
+	private <T> List<T> onEveryShard(Function<JdbcTemplate, T> call) {
+		List<CompletableFuture<T>> calls = shards.stream()
+				.map(shard -> CompletableFuture.supplyAsync(() -> call.apply(shard), fanOut))
+				.toList();
+		return calls.stream().map(CompletableFuture::join).toList();
+	}
+
+	@Override
+	public void close() throws IOException {
+		fanOut.shutdown();
+		for (DataSource dataSource : dataSources) {
+			if (dataSource instanceof Closeable closeable) {
+				closeable.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package com.example.JavaSQL.sharding;
+
+import com.example.JavaSQL.sharding.ShardingProperties.Shard;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+//The shard pools are owned by ShardedPersonStore, not exposed as DataSource beans, so spring.datasource stays the main database
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "university.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+	@Bean(destroyMethod = "close")
+	ShardedPersonStore shardedPersonStore(ShardingProperties properties) {
+		List<DataSource> shards = new ArrayList<>();
+		for (int i = 0; i < properties.shards().size(); i++) {
+			shards.add(pool("shard-" + i, properties.shards().get(i)));
+		}
+		ShardedPersonStore store = new ShardedPersonStore(shards,
+				new ShardRouter(shards.size(), properties.placement()), properties.fetchSize());
+		store.initializeSchema();
+		return store;
+	}
+
+	static HikariDataSource pool(String name, Shard shard) {
+		HikariConfig config = new HikariConfig();
+		config.setPoolName(name);
+		config.setJdbcUrl(shard.url());
+		config.setUsername(shard.username());
+		config.setPassword(shard.password());
+		config.setMaximumPoolSize(shard.maximumPoolSize());
+		return new HikariDataSource(config);
+	}
+}
@@ -0,0 +1,24 @@
+package com.example.JavaSQL.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * university.sharding.*: the shard databases, in order (shard 0, 1, ...).
+ *
+ * @param placement country id -> shard, pins single countries (e.g. a very large one) to a shard of their own
+ * @param fetchSize rows per round trip when a report streams a shard
+ */
+@ConfigurationProperties("university.sharding")
+public record ShardingProperties(
+		boolean enabled,
+		@DefaultValue List<Shard> shards,
+		@DefaultValue Map<Long, Integer> placement,
+		@DefaultValue("500") int fetchSize) {
+
+	public record Shard(String url, String username, String password, @DefaultValue("5") int maximumPoolSize) {
+	}
+}
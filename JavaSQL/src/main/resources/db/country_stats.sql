@@ -0,0 +1,126 @@
+-- Incremental maintenance of country_stats (PostgreSQL).
+-- Triggers also fire for native and bulk writes, which JPA entity listeners would miss.
+
+CREATE OR REPLACE FUNCTION country_stats_add(p_country bigint, p_persons bigint, p_students bigint, p_professors bigint)
+RETURNS void AS $$
+BEGIN
+	IF p_country IS NULL THEN
+		RETURN;
+	END IF;
+	INSERT INTO country_stats(id_country, persons, students, professors)
+	VALUES (p_country, p_persons, p_students, p_professors)
+	ON CONFLICT (id_country) DO UPDATE SET
+		persons = country_stats.persons + EXCLUDED.persons,
+		students = country_stats.students + EXCLUDED.students,
+		professors = country_stats.professors + EXCLUDED.professors;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION country_of_person(p_person bigint)
+RETURNS bigint AS $$
+	SELECT a.id_country FROM person p JOIN address a ON a.id_address = p.id_address WHERE p.id_person = p_person
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION country_stats_person()
+RETURNS trigger AS $$
+DECLARE
+	student_count bigint;
+	professor_count bigint;
+BEGIN
+	IF TG_OP IN ('DELETE', 'UPDATE') THEN
+		SELECT COUNT(*) INTO student_count FROM student WHERE id_person = OLD.id_person;
+		SELECT COUNT(*) INTO professor_count FROM professor WHERE id_person = OLD.id_person;
+		PERFORM country_stats_add((SELECT id_country FROM address WHERE id_address = OLD.id_address),
+			-1, -student_count, -professor_count);
+	END IF;
+	IF TG_OP IN ('INSERT', 'UPDATE') THEN
+		SELECT COUNT(*) INTO student_count FROM student WHERE id_person = NEW.id_person;
+		SELECT COUNT(*) INTO professor_count FROM professor WHERE id_person = NEW.id_person;
+		PERFORM country_stats_add((SELECT id_country FROM address WHERE id_address = NEW.id_address),
+			1, student_count, professor_count);
+	END IF;
+	RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER country_stats_person
+AFTER INSERT OR DELETE ON person
+FOR EACH ROW EXECUTE FUNCTION country_stats_person();
+
+-- Hibernate puts every column in the SET list, so UPDATE OF alone fires on every save
+CREATE OR REPLACE TRIGGER country_stats_person_moved
+AFTER UPDATE OF id_address ON person
+FOR EACH ROW WHEN (OLD.id_address IS DISTINCT FROM NEW.id_address)
+EXECUTE FUNCTION country_stats_person();
+
+CREATE OR REPLACE FUNCTION country_stats_student()
+RETURNS trigger AS $$
+BEGIN
+	IF TG_OP IN ('DELETE', 'UPDATE') THEN
+		PERFORM country_stats_add(country_of_person(OLD.id_person), 0, -1, 0);
+	END IF;
+	IF TG_OP IN ('INSERT', 'UPDATE') THEN
+		PERFORM country_stats_add(country_of_person(NEW.id_person), 0, 1, 0);
+	END IF;
+	RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER country_stats_student
+AFTER INSERT OR DELETE ON student
+FOR EACH ROW EXECUTE FUNCTION country_stats_student();
+
+CREATE OR REPLACE TRIGGER country_stats_student_moved
+AFTER UPDATE OF id_person ON student
+FOR EACH ROW WHEN (OLD.id_person IS DISTINCT FROM NEW.id_person)
+EXECUTE FUNCTION country_stats_student();
+
+CREATE OR REPLACE FUNCTION country_stats_professor()
+RETURNS trigger AS $$
+BEGIN
+	IF TG_OP IN ('DELETE', 'UPDATE') THEN
+		PERFORM country_stats_add(country_of_person(OLD.id_person), 0, 0, -1);
+	END IF;
+	IF TG_OP IN ('INSERT', 'UPDATE') THEN
+		PERFORM country_stats_add(country_of_person(NEW.id_person), 0, 0, 1);
+	END IF;
+	RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER country_stats_professor
+AFTER INSERT OR DELETE ON professor
+FOR EACH ROW EXECUTE FUNCTION country_stats_professor();
+
+CREATE OR REPLACE TRIGGER country_stats_professor_moved
+AFTER UPDATE OF id_person ON professor
+FOR EACH ROW WHEN (OLD.id_person IS DISTINCT FROM NEW.id_person)
+EXECUTE FUNCTION country_stats_professor();
+
+-- address re-pointed to another country: move everyone living there
+CREATE OR REPLACE FUNCTION country_stats_address()
+RETURNS trigger AS $$
+DECLARE
+	person_count bigint;
+	student_count bigint;
+	professor_count bigint;
+BEGIN
+	IF OLD.id_country IS DISTINCT FROM NEW.id_country THEN
+		SELECT COUNT(p.id_person), COUNT(s.id_student), COUNT(pr.id_professor)
+		INTO person_count, student_count, professor_count
+		FROM person p
+		LEFT JOIN student s ON s.id_person = p.id_person
+		LEFT JOIN professor pr ON pr.id_person = p.id_person
+		WHERE p.id_address = NEW.id_address;
+
+		PERFORM country_stats_add(OLD.id_country, -person_count, -student_count, -professor_count);
+		PERFORM country_stats_add(NEW.id_country, person_count, student_count, professor_count);
+	END IF;
+	RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER country_stats_address
+AFTER UPDATE OF id_country ON address
+FOR EACH ROW WHEN (OLD.id_country IS DISTINCT FROM NEW.id_country)
+EXECUTE FUNCTION country_stats_address();
@@ -0,0 +1,118 @@
+-- Append-only change log for person/student/professor, pulled by PersonChangeFeed from a (tx, id_change) watermark.
+
+CREATE TABLE person_change_log (
+	id_change bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+	tx bigint NOT NULL,
+	table_name varchar(16) NOT NULL,
+	operation varchar(8) NOT NULL,
+	id_person bigint,
+	changed_at timestamp(6) with time zone NOT NULL
+);
+
+CREATE INDEX person_change_log_tx ON person_change_log(tx, id_change);
+-- PersonChangeFeed.prune deletes by age
+CREATE INDEX person_change_log_changed_at ON person_change_log(changed_at);
+
+-- modificated_users filters on the modification date
+CREATE INDEX person_modification_date ON person(modification_date);
+
+-- triggers, same as db/person_change_log.sql (installed at runtime outside of prod)
+CREATE OR REPLACE FUNCTION person_change_log_new()
+RETURNS trigger AS $$
+BEGIN
+	INSERT INTO person_change_log(tx, table_name, operation, id_person, changed_at)
+	SELECT pg_current_xact_id()::text::bigint, TG_TABLE_NAME, TG_OP, id_person, now() FROM new_rows;
+	RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION person_change_log_old()
+RETURNS trigger AS $$
+BEGIN
+	INSERT INTO person_change_log(tx, table_name, operation, id_person, changed_at)
+	SELECT pg_current_xact_id()::text::bigint, TG_TABLE_NAME, TG_OP, id_person, now() FROM old_rows;
+	RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+-- a student/professor moved to another person changes both of them
+CREATE OR REPLACE FUNCTION person_change_log_update()
+RETURNS trigger AS $$
+BEGIN
+	INSERT INTO person_change_log(tx, table_name, operation, id_person, changed_at)
+	SELECT pg_current_xact_id()::text::bigint, TG_TABLE_NAME, TG_OP, id_person, now()
+	FROM (SELECT id_person FROM new_rows UNION SELECT id_person FROM old_rows) changed;
+	RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+-- an address moved to another country, or a renamed country, changes what the reports show for the persons living there
+CREATE OR REPLACE FUNCTION person_change_log_address()
+RETURNS trigger AS $$
+BEGIN
+	INSERT INTO person_change_log(tx, table_name, operation, id_person, changed_at)
+	SELECT pg_current_xact_id()::text::bigint, TG_TABLE_NAME, TG_OP, p.id_person, now()
+	FROM new_rows n
+	JOIN old_rows o ON o.id_address = n.id_address
+	JOIN person p ON p.id_address = n.id_address
+	WHERE n.id_country IS DISTINCT FROM o.id_country;
+	RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION person_change_log_country()
+RETURNS trigger AS $$
+BEGIN
+	INSERT INTO person_change_log(tx, table_name, operation, id_person, changed_at)
+	SELECT pg_current_xact_id()::text::bigint, TG_TABLE_NAME, TG_OP, p.id_person, now()
+	FROM new_rows n
+	JOIN old_rows o ON o.id_country = n.id_country
+	JOIN address a ON a.id_country = n.id_country
+	JOIN person p ON p.id_address = a.id_address
+	WHERE n.name IS DISTINCT FROM o.name;
+	RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+-- consumers have to resynchronise after a TRUNCATE
+CREATE OR REPLACE FUNCTION person_change_log_truncate()
+RETURNS trigger AS $$
+BEGIN
+	INSERT INTO person_change_log(tx, table_name, operation, id_person, changed_at)
+	VALUES (pg_current_xact_id()::text::bigint, TG_TABLE_NAME, TG_OP, NULL, now());
+	RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER person_change_log_insert AFTER INSERT ON person
+REFERENCING NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION person_change_log_new();
+CREATE OR REPLACE TRIGGER person_change_log_update AFTER UPDATE ON person
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION person_change_log_update();
+CREATE OR REPLACE TRIGGER person_change_log_delete AFTER DELETE ON person
+REFERENCING OLD TABLE AS old_rows FOR EACH STATEMENT EXECUTE FUNCTION person_change_log_old();
+CREATE OR REPLACE TRIGGER person_change_log_truncate AFTER TRUNCATE ON person
+FOR EACH STATEMENT EXECUTE FUNCTION person_change_log_truncate();
+
+CREATE OR REPLACE TRIGGER person_change_log_insert AFTER INSERT ON student
+REFERENCING NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION person_change_log_new();
+CREATE OR REPLACE TRIGGER person_change_log_update AFTER UPDATE ON student
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION person_change_log_update();
+CREATE OR REPLACE TRIGGER person_change_log_delete AFTER DELETE ON student
+REFERENCING OLD TABLE AS old_rows FOR EACH STATEMENT EXECUTE FUNCTION person_change_log_old();
+CREATE OR REPLACE TRIGGER person_change_log_truncate AFTER TRUNCATE ON student
+FOR EACH STATEMENT EXECUTE FUNCTION person_change_log_truncate();
+
+CREATE OR REPLACE TRIGGER person_change_log_insert AFTER INSERT ON professor
+REFERENCING NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION person_change_log_new();
+CREATE OR REPLACE TRIGGER person_change_log_update AFTER UPDATE ON professor
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION person_change_log_update();
+CREATE OR REPLACE TRIGGER person_change_log_delete AFTER DELETE ON professor
+REFERENCING OLD TABLE AS old_rows FOR EACH STATEMENT EXECUTE FUNCTION person_change_log_old();
+CREATE OR REPLACE TRIGGER person_change_log_truncate AFTER TRUNCATE ON professor
+FOR EACH STATEMENT EXECUTE FUNCTION person_change_log_truncate();
+
+CREATE OR REPLACE TRIGGER person_change_log_update AFTER UPDATE ON address
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION person_change_log_address();
+
+CREATE OR REPLACE TRIGGER person_change_log_update AFTER UPDATE ON country
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION person_change_log_country();
@@ -0,0 +1,4 @@
+-- @Version columns for optimistic locking; existing rows start at 0
+ALTER TABLE person ADD COLUMN version bigint NOT NULL DEFAULT 0;
+ALTER TABLE student ADD COLUMN version bigint NOT NULL DEFAULT 0;
+ALTER TABLE professor ADD COLUMN version bigint NOT NULL DEFAULT 0;
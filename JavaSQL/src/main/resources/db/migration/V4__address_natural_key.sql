@@ -0,0 +1,16 @@
+-- Address is identified by (country, city, street): persons move to the oldest of any duplicates, which are then dropped.
+
+UPDATE person p
+SET id_address = d.keep
+FROM (
+	SELECT id_address, MIN(id_address) OVER (PARTITION BY id_country, city, street) AS keep
+	FROM address
+) d
+WHERE p.id_address = d.id_address AND d.id_address <> d.keep;
+
+DELETE FROM address a
+USING address b
+WHERE a.id_country = b.id_country AND a.city = b.city AND a.street = b.street
+AND a.id_address > b.id_address;
+
+ALTER TABLE address ADD CONSTRAINT address_natural_key UNIQUE (id_country, city, street);
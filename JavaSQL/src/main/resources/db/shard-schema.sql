@@ -0,0 +1,32 @@
+-- one shard of the university, see ShardedPersonStore; {start} and {stride} are the shard's number + 1 and the shard count,
+-- so the identities of different shards never collide. Country stays in the main database, id_country is the shard key
+CREATE TABLE IF NOT EXISTS address (
+	id_address bigint GENERATED BY DEFAULT AS IDENTITY (START WITH {start} INCREMENT BY {stride}) PRIMARY KEY,
+	id_country bigint NOT NULL,
+	street varchar(255) NOT NULL,
+	city varchar(255) NOT NULL,
+	CONSTRAINT address_natural_key UNIQUE (id_country, city, street)
+);
+
+CREATE TABLE IF NOT EXISTS person (
+	id_person bigint GENERATED BY DEFAULT AS IDENTITY (START WITH {start} INCREMENT BY {stride}) PRIMARY KEY,
+	id_address bigint NOT NULL REFERENCES address(id_address),
+	last_name varchar(255) NOT NULL,
+	creation_date timestamp(6) with time zone,
+	modification_date timestamp(6) with time zone
+);
+
+CREATE TABLE IF NOT EXISTS student (
+	id_student bigint GENERATED BY DEFAULT AS IDENTITY (START WITH {start} INCREMENT BY {stride}) PRIMARY KEY,
+	id_person bigint NOT NULL UNIQUE REFERENCES person(id_person),
+	student_number integer NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS professor (
+	id_professor bigint GENERATED BY DEFAULT AS IDENTITY (START WITH {start} INCREMENT BY {stride}) PRIMARY KEY,
+	id_person bigint NOT NULL UNIQUE REFERENCES person(id_person),
+	professor_number integer NOT NULL UNIQUE
+);
+
+CREATE INDEX IF NOT EXISTS person_address ON person(id_address);
+CREATE INDEX IF NOT EXISTS person_modification_date ON person(modification_date);
@@ -0,0 +1,68 @@
+package com.example.JavaSQL.analytics;
+
+import com.example.JavaSQL.model.projection.CountryStudentsProfessors;
+import com.example.JavaSQL.services.PersonChangeFeed;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+//H2, so the version is the fingerprint (the change feed is PostgreSQL only)
+class AnalyticsSnapshotServiceTest {
+
+	private JdbcTemplate jdbcTemplate;
+	private AnalyticsSnapshotService service;
+
+	@BeforeEach
+	void setUp() {
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:analytics_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE country (id_country bigint PRIMARY KEY, name varchar(255))");
+		jdbcTemplate.execute("CREATE TABLE address (id_address bigint PRIMARY KEY, id_country bigint)");
+		jdbcTemplate.execute("CREATE TABLE person (id_person bigint PRIMARY KEY, id_address bigint, modification_date timestamp)");
+		jdbcTemplate.execute("CREATE TABLE student (id_student bigint PRIMARY KEY, id_person bigint)");
+		jdbcTemplate.execute("CREATE TABLE professor (id_professor bigint PRIMARY KEY, id_person bigint)");
+		jdbcTemplate.execute("INSERT INTO country VALUES (1, 'Poland'), (2, 'Spain')");
+		jdbcTemplate.execute("INSERT INTO address VALUES (10, 1), (20, 2)");
+		jdbcTemplate.execute("INSERT INTO person VALUES (100, 10, NULL), (200, 20, NULL)");
+		jdbcTemplate.execute("INSERT INTO student VALUES (1, 100), (2, 200)");
+
+		service = new AnalyticsSnapshotService(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+				mock(PersonChangeFeed.class), "", 100);
+	}
+
+	@Test
+	void givenUnchangedData_whenRefreshed_thenSnapshotKept() {
+		assertThat(service.refresh()).isTrue();
+		assertThat(service.refresh()).isFalse();
+	}
+
+	@Test
+	void givenAddressMovedToAnotherCountry_whenRefreshed_thenReloaded() {
+		service.refresh();
+
+		jdbcTemplate.update("UPDATE address SET id_country = 2 WHERE id_address = 10");
+
+		assertThat(service.refresh()).isTrue();
+		assertThat(service.snapshot().orElseThrow().studentsAndProfessorsByCountry())
+				.containsExactly(new CountryStudentsProfessors("Spain", 2L, 0L));
+	}
+
+	@Test
+	void givenCountryRenamed_whenRefreshed_thenReloaded() {
+		service.refresh();
+
+		jdbcTemplate.update("UPDATE country SET name = 'Polska' WHERE id_country = 1");
+
+		assertThat(service.refresh()).isTrue();
+		assertThat(service.snapshot().orElseThrow().studentsAndProfessorsByCountry())
+				.extracting(CountryStudentsProfessors::country)
+				.containsExactly("Polska", "Spain");
+	}
+}
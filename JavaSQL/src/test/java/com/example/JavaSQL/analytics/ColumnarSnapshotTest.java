@@ -0,0 +1,63 @@
+package com.example.JavaSQL.analytics;
+
+import com.example.JavaSQL.model.projection.CountryActivity;
+import com.example.JavaSQL.model.projection.CountryStudentsProfessors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static com.example.JavaSQL.analytics.ColumnarSnapshot.NO_DATE;
+import static com.example.JavaSQL.analytics.ColumnarSnapshot.PROFESSOR;
+import static com.example.JavaSQL.analytics.ColumnarSnapshot.STUDENT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarSnapshotTest {
+
+	private static final Instant DAY = Instant.parse("2026-01-15T00:00:00Z");
+
+	@Test
+	void groupedCountsMatchThePersonReports() {
+		ColumnarSnapshot snapshot = new ColumnarSnapshot.Builder(List.of("Spain", "Poland", "Atlantis"))
+				.add(1, STUDENT, DAY.toEpochMilli())
+				.add(1, PROFESSOR, DAY.plusSeconds(3_600).toEpochMilli())
+				.add(1, (byte) (STUDENT | PROFESSOR), NO_DATE)
+				.add(0, (byte) 0, DAY.toEpochMilli())
+				.add(2, (byte) 0, DAY.toEpochMilli())
+				.build("v1", DAY);
+
+		assertThat(snapshot.studentsAndProfessorsByCountry()).containsExactly(
+				new CountryStudentsProfessors("Poland", 2L, 2L));
+		assertThat(snapshot.modifiedBetween(DAY, DAY.plusSeconds(60))).containsExactly(
+				new CountryActivity("Atlantis", 1L, 0L, 0L),
+				new CountryActivity("Poland", 1L, 1L, 0L),
+				new CountryActivity("Spain", 1L, 0L, 0L));
+	}
+
+	@Test
+	void parallelScanAndFileRoundTripKeepTheCounts(@TempDir Path directory) throws Exception {
+		ColumnarSnapshot.Builder builder = new ColumnarSnapshot.Builder(List.of("A", "B", "C"));
+		for (int i = 0; i < 300_000; i++) {
+			builder.add(i % 3, (byte) (i % 4), DAY.toEpochMilli() + i);
+		}
+		ColumnarSnapshot snapshot = builder.build("feed:10-20", DAY);
+		assertThat(snapshot.studentsAndProfessorsByCountry()).containsExactly(
+				new CountryStudentsProfessors("A", 50_000L, 50_000L),
+				new CountryStudentsProfessors("B", 50_000L, 50_000L),
+				new CountryStudentsProfessors("C", 50_000L, 50_000L));
+
+		Path file = directory.resolve("snapshot.bin");
+		snapshot.writeTo(file);
+		ColumnarSnapshot read = ColumnarSnapshot.readFrom(file);
+
+		assertThat(read.version()).isEqualTo("feed:10-20");
+		assertThat(read.takenAt()).isEqualTo(DAY);
+		assertThat(read.persons()).isEqualTo(300_000);
+		assertThat(read.studentsAndProfessorsByCountry()).isEqualTo(snapshot.studentsAndProfessorsByCountry());
+		Instant to = DAY.plusMillis(99_999);
+		assertThat(read.modifiedBetween(DAY, to)).isEqualTo(snapshot.modifiedBetween(DAY, to))
+				.extracting(CountryActivity::persons).containsExactly(33_334L, 33_333L, 33_333L);
+	}
+}
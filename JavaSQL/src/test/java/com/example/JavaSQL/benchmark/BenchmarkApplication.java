@@ -0,0 +1,34 @@
+package com.example.JavaSQL.benchmark;
+
+import com.example.JavaSQL.JavaSqlApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+//Boots the application against an embedded H2 database, so benchmarks don't need the docker postgres.
+final class BenchmarkApplication {
+
+	private BenchmarkApplication() {
+	}
+
+	static ConfigurableApplicationContext start(String database, String... properties) {
+		String[] defaults = {
+				"spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+				"spring.datasource.username=sa",
+				"spring.datasource.password=",
+				"spring.jpa.show-sql=false",
+				"spring.jpa.properties.hibernate.format_sql=false",
+				"spring.main.banner-mode=off",
+				"logging.level.root=warn"};
+		//as command line arguments: default properties would lose against application.properties
+		String[] args = Stream.concat(Arrays.stream(defaults), Arrays.stream(properties))
+				.map(property -> "--" + property)
+				.toArray(String[]::new);
+		return new SpringApplicationBuilder(JavaSqlApplication.class)
+				.web(WebApplicationType.NONE)
+				.run(args);
+	}
+}
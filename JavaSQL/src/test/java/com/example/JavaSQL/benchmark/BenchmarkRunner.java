@@ -0,0 +1,27 @@
+package com.example.JavaSQL.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+//Entry point used by the `benchmark` maven profile. Reports ops/sec plus allocation rate (gc profiler).
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws Exception {
+		ChainedOptionsBuilder options = new OptionsBuilder()
+				.include(args.length > 0 && !args[0].isBlank() ? args[0] : ".*Benchmark.*")
+				.addProfiler(GCProfiler.class)
+				.forks(1)
+				.warmupIterations(3)
+				.measurementIterations(5)
+				.shouldFailOnError(true);
+
+		String rows = System.getProperty("benchmark.rows", "");
+		if (!rows.isBlank()) {
+			options.param("rows", rows.split(","));
+		}
+
+		new Runner(options.build()).run();
+	}
+}
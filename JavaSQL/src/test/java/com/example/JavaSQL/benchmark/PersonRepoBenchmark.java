@@ -0,0 +1,96 @@
+package com.example.JavaSQL.benchmark;
+
+import com.example.JavaSQL.repositories.PersonRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PersonRepoBenchmark {
+
+	static final int COUNTRIES = 20;
+	static final int ADDRESSES_PER_COUNTRY = 10;
+	static final Instant TO = Instant.parse("2026-02-01T00:00:00Z");
+	static final Instant FROM = TO.minus(31, ChronoUnit.DAYS);
+
+	@Param({"1000", "100000"})
+	public int rows;
+
+	ConfigurableApplicationContext context;
+	PersonRepo personRepo;
+	EntityManager entityManager;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		//generated by GeneratorRunner: 70% students, 10% professors, modification dates spread over the 90 days before TO
+		context = BenchmarkApplication.start("persons" + rows,
+				"university.generator.enabled=true",
+				"university.generator.countries=" + COUNTRIES,
+				"university.generator.addresses=" + COUNTRIES * ADDRESSES_PER_COUNTRY,
+				"university.generator.persons=" + rows,
+				"university.generator.modification-from=" + TO.minus(90, ChronoUnit.DAYS),
+				"university.generator.modification-to=" + TO);
+		personRepo = context.getBean(PersonRepo.class);
+		entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Object studentsAndProfessorsGroupedByCountry() {
+		return personRepo.students_and_professors_grouped_by_country();
+	}
+
+	@Benchmark
+	public Object modificatedUsers() {
+		return personRepo.modificated_users(FROM, TO);
+	}
+
+	@Benchmark
+	public Object groupPersonByCountry() {
+		return personRepo.groupPersonByCountry("Country1");
+	}
+
+	//the same reports read as untyped Object[] rows, to compare allocation rate against the record projections
+
+	@Benchmark
+	public List<Object[]> studentsAndProfessorsGroupedByCountryObjectArray() {
+		return entityManager.createQuery("""
+				SELECT COUNT(s), COUNT(pr), c.name
+				FROM Person p
+				LEFT JOIN Student s ON p = s.id_person
+				LEFT JOIN Professor pr ON p = pr.id_person
+				JOIN Address a ON p.id_address = a
+				JOIN Country c ON a.id_country = c
+				GROUP BY c.name
+				HAVING COUNT(s) + COUNT(pr) > 0
+				""", Object[].class).getResultList();
+	}
+
+	@Benchmark
+	public List<Object[]> modificatedUsersObjectArray() {
+		return entityManager.createQuery("""
+				SELECT p.last_name, p.modification_date, s.student_number, pr.professor_number, CONCAT(a.city, ', ', a.street)
+				FROM Person p
+				LEFT JOIN Student s ON s.id_person = p
+				LEFT JOIN Professor pr ON pr.id_person = p
+				JOIN Address a ON p.id_address = a
+				WHERE p.modification_date BETWEEN :from AND :to
+				""", Object[].class)
+				.setParameter("from", FROM)
+				.setParameter("to", TO)
+				.getResultList();
+	}
+}
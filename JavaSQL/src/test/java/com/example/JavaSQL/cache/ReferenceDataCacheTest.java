@@ -0,0 +1,65 @@
+package com.example.JavaSQL.cache;
+
+import com.example.JavaSQL.model.Country;
+import com.example.JavaSQL.repositories.AddressRepo;
+import com.example.JavaSQL.repositories.CountryRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReferenceDataCacheTest {
+
+	private final CountryRepo countryRepo = mock(CountryRepo.class);
+	private final AddressRepo addressRepo = mock(AddressRepo.class);
+	private final List<Country> countries = new ArrayList<>();
+	private ReferenceDataCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new ReferenceDataCache(countryRepo, addressRepo);
+		countries.add(country(1L, "Poland"));
+		when(countryRepo.findAll()).thenAnswer(invocation -> List.copyOf(countries));
+		when(addressRepo.findAll()).thenReturn(List.of());
+	}
+
+	@Test
+	void givenSnapshot_whenInvalidated_thenNextLookupReloads() {
+		assertThat(cache.countryId("Poland")).contains(1L);
+		assertThat(cache.countryId("Spain")).isEmpty();
+
+		countries.add(country(2L, "Spain"));
+		cache.invalidate();
+
+		assertThat(cache.countryId("Spain")).contains(2L);
+		verify(countryRepo, times(2)).findAll();
+	}
+
+	@Test
+	void givenInvalidationDuringLoad_whenLoadFinishes_thenItsSnapshotIsNotCurrent() {
+		//Spain is committed and invalidated after the countries were read, while addresses are still loading
+		when(addressRepo.findAll()).thenAnswer(invocation -> {
+			countries.add(country(2L, "Spain"));
+			cache.invalidate();
+			return List.of();
+		}).thenReturn(List.of());
+
+		assertThat(cache.countryId("Poland")).contains(1L);
+		assertThat(cache.countryId("Spain")).contains(2L);
+		verify(countryRepo, times(2)).findAll();
+	}
+
+	private static Country country(Long id, String name) {
+		Country country = new Country();
+		country.setId_country(id);
+		country.setName(name);
+		return country;
+	}
+}
@@ -0,0 +1,85 @@
+package com.example.JavaSQL.generator;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyntheticDataGeneratorTest {
+
+	@Test
+	void sameSpecGeneratesSameRowsWhateverTheThreadCount() {
+		JdbcTemplate sequential = database("generator_sequential");
+		JdbcTemplate parallel = database("generator_parallel");
+
+		GeneratorResult first = new SyntheticDataGenerator(sequential).generate(spec(1));
+		GeneratorResult second = new SyntheticDataGenerator(parallel).generate(spec(4));
+
+		assertThat(second.students()).isEqualTo(first.students());
+		assertThat(second.professors()).isEqualTo(first.professors());
+		for (String table : List.of("country", "address", "person", "student", "professor")) {
+			assertThat(rows(parallel, table)).as(table).isEqualTo(rows(sequential, table));
+		}
+		assertThat(first.students() + first.professors()).isBetween(1_900L, 2_500L);
+	}
+
+	@Test
+	void identityContinuesAfterGeneratedIds() {
+		JdbcTemplate jdbcTemplate = database("generator_identity");
+		new SyntheticDataGenerator(jdbcTemplate).generate(spec(2));
+
+		jdbcTemplate.update("INSERT INTO country(name) VALUES ('Poland')");
+
+		assertThat(jdbcTemplate.queryForObject("SELECT id_country FROM country WHERE name = 'Poland'", Long.class))
+				.isEqualTo(6L);
+	}
+
+	private static GeneratorSpec spec(int threads) {
+		return new GeneratorSpec(7, 5, 50, 3_000, 0.7, 0.1,
+				Instant.parse("2025-11-03T00:00:00Z"), Instant.parse("2026-02-01T00:00:00Z"),
+				1.5, 2.0, 256, threads);
+	}
+
+	private static List<Map<String, Object>> rows(JdbcTemplate jdbcTemplate, String table) {
+		return jdbcTemplate.queryForList("SELECT * FROM " + table + " ORDER BY 1");
+	}
+
+	private static JdbcTemplate database(String name) {
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", ""));
+		jdbcTemplate.execute("""
+				CREATE TABLE country (
+					id_country bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+					name varchar(255) NOT NULL UNIQUE);
+				CREATE TABLE address (
+					id_address bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+					id_country bigint NOT NULL REFERENCES country(id_country),
+					street varchar(255) NOT NULL,
+					city varchar(255) NOT NULL);
+				CREATE TABLE person (
+					id_person bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+					id_address bigint NOT NULL REFERENCES address(id_address),
+					last_name varchar(255) NOT NULL,
+					creation_date timestamp(6) with time zone,
+					modification_date timestamp(6) with time zone);
+				CREATE TABLE student (
+					id_student bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+					id_person bigint NOT NULL UNIQUE REFERENCES person(id_person),
+					student_number integer NOT NULL UNIQUE);
+				CREATE TABLE professor (
+					id_professor bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+					id_person bigint NOT NULL UNIQUE REFERENCES person(id_person),
+					professor_number integer NOT NULL UNIQUE);
+				CREATE TABLE country_stats (
+					id_country bigint PRIMARY KEY,
+					persons bigint NOT NULL,
+					students bigint NOT NULL,
+					professors bigint NOT NULL);
+				""");
+		return jdbcTemplate;
+	}
+}
@@ -0,0 +1,102 @@
+package com.example.JavaSQL.services;
+
+import com.example.JavaSQL.model.PersonChange;
+import com.example.JavaSQL.repositories.PersonChangeRepo;
+import com.example.JavaSQL.services.PersonChangeFeed.ChangeBatch;
+import com.example.JavaSQL.services.PersonChangeFeed.Watermark;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+//the xmin bound itself lives in the PostgreSQL query, these cover the watermark handling around it
+class PersonChangeFeedTest {
+
+	private final PersonChangeRepo personChangeRepo = mock(PersonChangeRepo.class);
+	private final TriggerInstaller triggerInstaller = mock(TriggerInstaller.class);
+	private PersonChangeFeed feed;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		when(triggerInstaller.install(anyString())).thenReturn(true);
+		feed = new PersonChangeFeed(personChangeRepo, triggerInstaller, 100, Duration.ofDays(7));
+		feed.installTriggers();
+	}
+
+	@Test
+	void givenWatermark_whenFormattedAndParsed_thenSameWatermark() {
+		Watermark watermark = new Watermark(9_000_000_123L, 42);
+
+		assertThat(watermark.toString()).isEqualTo("9000000123-42");
+		assertThat(Watermark.parse(watermark.toString())).isEqualTo(watermark);
+		assertThat(Watermark.parse(Watermark.START.toString())).isEqualTo(Watermark.START);
+	}
+
+	@Test
+	void givenMalformedWatermark_whenParsed_thenRejected() {
+		assertThatThrownBy(() -> Watermark.parse("42")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> Watermark.parse("a-1")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void givenSeveralPages_whenPaging_thenEachCallStartsAfterTheLastChange() {
+		//two changes in tx 10, one in tx 11: ordered by (tx, id_change), not by id_change alone
+		when(personChangeRepo.changesAfter(0, 0, 2)).thenReturn(List.of(change(10, 5), change(10, 7)));
+		when(personChangeRepo.changesAfter(10, 7, 2)).thenReturn(List.of(change(11, 6)));
+		when(personChangeRepo.changesAfter(11, 6, 2)).thenReturn(List.of());
+
+		ChangeBatch first = feed.changesSince(Watermark.START, 2);
+		ChangeBatch second = feed.changesSince(first.watermark(), 2);
+		ChangeBatch third = feed.changesSince(second.watermark(), 2);
+
+		assertThat(first.watermark()).isEqualTo(new Watermark(10, 7));
+		assertThat(second.changes()).extracting(PersonChange::getId_change).containsExactly(6L);
+		assertThat(second.watermark()).isEqualTo(new Watermark(11, 6));
+		//nothing new: the consumer keeps its watermark
+		assertThat(third.changes()).isEmpty();
+		assertThat(third.watermark()).isEqualTo(second.watermark());
+	}
+
+	@Test
+	void givenLimitAboveMaxBatch_whenPaging_thenCapped() {
+		when(personChangeRepo.changesAfter(0, 0, 100)).thenReturn(List.of());
+
+		feed.changesSince(Watermark.START, 5_000);
+
+		verify(personChangeRepo).changesAfter(0, 0, 100);
+	}
+
+	@Test
+	void givenLimitBelowOne_whenPaging_thenRejectedBeforeTheQuery() {
+		assertThatThrownBy(() -> feed.changesSince(Watermark.START, 0)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> feed.changesSince(Watermark.START, -5)).isInstanceOf(IllegalArgumentException.class);
+		verifyNoInteractions(personChangeRepo);
+	}
+
+	@Test
+	void givenNoTriggers_whenPrunedOrPaged_thenRepositoryUntouched() throws IOException {
+		when(triggerInstaller.install(anyString())).thenReturn(false);
+		feed.installTriggers();
+
+		assertThat(feed.prune()).isZero();
+		assertThatThrownBy(() -> feed.changesSince(Watermark.START, 10)).isInstanceOf(IllegalStateException.class);
+		verifyNoInteractions(personChangeRepo);
+	}
+
+	private static PersonChange change(long tx, long id) {
+		PersonChange change = new PersonChange();
+		change.setTx(tx);
+		change.setId_change(id);
+		return change;
+	}
+}
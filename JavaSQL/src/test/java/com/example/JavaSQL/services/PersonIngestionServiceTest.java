@@ -0,0 +1,140 @@
+package com.example.JavaSQL.services;
+
+import com.example.JavaSQL.cache.ReferenceDataCache;
+import com.example.JavaSQL.services.PersonIngestionService.IngestionResult;
+import com.example.JavaSQL.services.PersonIngestionService.PersonIngest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PersonIngestionServiceTest {
+
+	private JdbcTemplate jdbcTemplate;
+	private PersonIngestionService service;
+
+	@BeforeEach
+	void setUp() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:ingestion_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("""
+				CREATE TABLE country (
+					id_country bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+					name varchar(255) NOT NULL UNIQUE);
+				CREATE TABLE address (
+					id_address bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+					id_country bigint NOT NULL REFERENCES country(id_country),
+					street varchar(255) NOT NULL,
+					city varchar(255) NOT NULL,
+					CONSTRAINT address_natural_key UNIQUE (id_country, city, street));
+				CREATE TABLE person (
+					id_person bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+					version bigint DEFAULT 0 NOT NULL,
+					id_address bigint NOT NULL REFERENCES address(id_address),
+					last_name varchar(255) NOT NULL,
+					creation_date timestamp(6) with time zone,
+					modification_date timestamp(6) with time zone);
+				CREATE TABLE student (
+					id_student bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+					version bigint DEFAULT 0 NOT NULL,
+					id_person bigint NOT NULL UNIQUE REFERENCES person(id_person),
+					student_number integer NOT NULL UNIQUE);
+				CREATE TABLE professor (
+					id_professor bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+					version bigint DEFAULT 0 NOT NULL,
+					id_person bigint NOT NULL UNIQUE REFERENCES person(id_person),
+					professor_number integer NOT NULL UNIQUE);
+				INSERT INTO country(name) VALUES ('Poland');
+				INSERT INTO address(id_country, city, street) VALUES (1, 'Kraków', 'Karmelicka 2');
+				""");
+		//the cache is only invalidated here, it never loads
+		service = new PersonIngestionService(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+				new ReferenceDataCache(null, null), Optional.empty(), 2);
+	}
+
+	@Test
+	void referencesAreUpsertedOncePerDistinctKey() {
+		IngestionResult result = service.ingest(List.of(
+				new PersonIngest("Nowak", "Poland", "Kraków", "Karmelicka 2", 1, null),
+				new PersonIngest("Kowalski", "Poland", "Kraków", "Karmelicka 2", null, 1),
+				new PersonIngest("Wiśniewski", "Poland", "Warszawa", "Przemieścia 5", 2, null),
+				new PersonIngest("Müller", "Germany", "Berlin", "Schemteling 10", null, null),
+				new PersonIngest("Schmidt", "Germany", "Berlin", "Schemteling 10", 3, 2)));
+
+		assertThat(result.persons()).isEqualTo(5);
+		assertThat(result.students()).isEqualTo(3);
+		assertThat(result.professors()).isEqualTo(2);
+		assertThat(result.countriesInserted()).isEqualTo(1);
+		assertThat(result.addressesInserted()).isEqualTo(2);
+		//an upsert and a lookup for countries and for addresses in batches 1 and 2, batch 3 only has cached keys
+		assertThat(result.referenceStatements()).isEqualTo(8);
+		assertThat(count("country")).isEqualTo(2);
+		assertThat(count("address")).isEqualTo(3);
+		assertThat(jdbcTemplate.queryForObject("""
+				SELECT COUNT(*) FROM person p JOIN address a ON a.id_address = p.id_address JOIN country c ON c.id_country = a.id_country
+				WHERE c.name = 'Germany' AND a.city = 'Berlin'
+				""", Long.class)).isEqualTo(2);
+		assertThat(jdbcTemplate.queryForObject("""
+				SELECT p.last_name FROM person p JOIN professor pr ON pr.id_person = p.id_person WHERE pr.professor_number = 2
+				""", String.class)).isEqualTo("Schmidt");
+	}
+
+	@Test
+	void repeatedIngestReusesExistingReferences() {
+		List<PersonIngest> persons = List.of(
+				new PersonIngest("Nowak", "Poland", "Kraków", "Karmelicka 2", null, null),
+				new PersonIngest("Smith", "England", "Londyn", "Big 10", null, null));
+		service.ingest(persons);
+
+		IngestionResult again = service.ingest(persons);
+
+		assertThat(again.countriesInserted()).isZero();
+		assertThat(again.addressesInserted()).isZero();
+		assertThat(count("address")).isEqualTo(2);
+		assertThat(count("person")).isEqualTo(4);
+	}
+
+	@Test
+	void missingNaturalKeyIsRejected() {
+		assertThatThrownBy(() -> service.ingest(List.of(new PersonIngest("Nowak", null, "Kraków", "Karmelicka 2", null, null))))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThat(count("person")).isZero();
+	}
+
+	@Test
+	void invalidPersonInALaterBatchStoresNothing() {
+		assertThatThrownBy(() -> service.ingest(List.of(
+				new PersonIngest("Nowak", "Poland", "Kraków", "Karmelicka 2", 1, null),
+				new PersonIngest("Smith", "England", "Londyn", "Big 10", null, null),
+				new PersonIngest("Kowalski", "Poland", null, "Karmelicka 2", null, null))))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("person 2");
+		assertThat(count("person")).isZero();
+		assertThat(count("country")).isEqualTo(1);
+	}
+
+	@Test
+	void failingStatementInALaterBatchRollsBackEarlierBatches() {
+		//the third person repeats the first student number, the unique constraint fails in batch 2
+		assertThatThrownBy(() -> service.ingest(List.of(
+				new PersonIngest("Nowak", "Poland", "Kraków", "Karmelicka 2", 1, null),
+				new PersonIngest("Smith", "England", "Londyn", "Big 10", null, null),
+				new PersonIngest("Kowalski", "Poland", "Kraków", "Karmelicka 2", 1, null))))
+				.isInstanceOf(DataIntegrityViolationException.class);
+		assertThat(count("person")).isZero();
+		assertThat(count("student")).isZero();
+		assertThat(count("address")).isEqualTo(1);
+	}
+
+	private long count(String table) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+	}
+}
@@ -0,0 +1,169 @@
+package com.example.JavaSQL.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReportEngineTest {
+
+	private final MutableClock clock = new MutableClock();
+	private DataSourceTransactionManager transactionManager;
+	private ReportEngine engine;
+
+	@BeforeEach
+	void setUp() {
+		transactionManager = new DataSourceTransactionManager(
+				new DriverManagerDataSource("jdbc:h2:mem:reports_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+	}
+
+	@AfterEach
+	void tearDown() {
+		engine.destroy();
+	}
+
+	@Test
+	void givenConcurrentRefreshes_whenSameName_thenOneExecution() throws Exception {
+		engine = new ReportEngine(transactionManager, 4, 100, Duration.ofMinutes(1), 8);
+		AtomicInteger executions = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService callers = Executors.newFixedThreadPool(10);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<CompletableFuture<Integer>>> refreshes = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			refreshes.add(callers.submit(() -> {
+				await(start);
+				return engine.refresh("report", () -> {
+					await(release);
+					return executions.incrementAndGet();
+				});
+			}));
+		}
+		start.countDown();
+		List<CompletableFuture<Integer>> futures = new ArrayList<>();
+		for (Future<CompletableFuture<Integer>> refresh : refreshes) {
+			futures.add(refresh.get(5, TimeUnit.SECONDS));
+		}
+		release.countDown();
+		callers.shutdown();
+
+		for (CompletableFuture<Integer> future : futures) {
+			assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+		}
+		assertThat(executions).hasValue(1);
+
+		//the finished execution is no longer shared
+		assertThat(engine.refresh("report", executions::incrementAndGet).get(5, TimeUnit.SECONDS)).isEqualTo(2);
+	}
+
+	@Test
+	void givenReportsThatFinishAtOnce_whenRefreshedRepeatedly_thenEveryRefreshRunsAgain() throws Exception {
+		engine = new ReportEngine(transactionManager, 4, 100, Duration.ofMinutes(1), 8);
+		AtomicInteger executions = new AtomicInteger();
+
+		for (int i = 1; i <= 200; i++) {
+			assertThat(engine.refresh("instant", executions::incrementAndGet).get(5, TimeUnit.SECONDS)).isEqualTo(i);
+		}
+	}
+
+	@Test
+	void givenSnapshot_whenWithinStaleness_thenServedUntilItExpires() throws Exception {
+		engine = new ReportEngine(transactionManager, 2, 10, Duration.ofSeconds(30), 8, clock);
+		AtomicInteger executions = new AtomicInteger();
+
+		assertThat(engine.run("report", executions::incrementAndGet).get(5, TimeUnit.SECONDS)).isEqualTo(1);
+		clock.advance(Duration.ofSeconds(29));
+		assertThat(engine.run("report", executions::incrementAndGet).get(5, TimeUnit.SECONDS)).isEqualTo(1);
+		assertThat(engine.<Integer>snapshot("report").value()).isEqualTo(1);
+
+		clock.advance(Duration.ofSeconds(1));
+		assertThat(engine.run("report", executions::incrementAndGet).get(5, TimeUnit.SECONDS)).isEqualTo(2);
+		assertThat(executions).hasValue(2);
+	}
+
+	@Test
+	void givenMoreNamesThanMaxSnapshots_whenRun_thenOldestSnapshotsAreDropped() throws Exception {
+		engine = new ReportEngine(transactionManager, 2, 10, Duration.ofMinutes(1), 2, clock);
+
+		for (String name : List.of("a", "b", "c")) {
+			engine.run(name, () -> name).get(5, TimeUnit.SECONDS);
+			clock.advance(Duration.ofMillis(1));
+		}
+
+		assertThat(engine.<String>snapshot("a")).isNull();
+		assertThat(engine.<String>snapshot("b").value()).isEqualTo("b");
+		assertThat(engine.<String>snapshot("c").value()).isEqualTo("c");
+	}
+
+	@Test
+	void givenSingleSnapshot_whenAnotherReportRuns_thenItReplacesTheFirst() throws Exception {
+		engine = new ReportEngine(transactionManager, 2, 10, Duration.ofMinutes(1), 1, clock);
+
+		engine.run("a", () -> "a").get(5, TimeUnit.SECONDS);
+		engine.run("b", () -> "b").get(5, TimeUnit.SECONDS);
+		engine.run("b", () -> "again").get(5, TimeUnit.SECONDS);
+
+		assertThat(engine.<String>snapshot("a")).isNull();
+		assertThat(engine.<String>snapshot("b").value()).isEqualTo("b");
+	}
+
+	@Test
+	void givenNoSnapshotsAllowed_whenCreated_thenRejected() {
+		engine = new ReportEngine(transactionManager, 1, 1, Duration.ofMinutes(1), 1);
+
+		assertThatThrownBy(() -> new ReportEngine(transactionManager, 1, 1, Duration.ofMinutes(1), 0))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private volatile Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
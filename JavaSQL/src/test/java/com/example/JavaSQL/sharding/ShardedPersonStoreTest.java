@@ -0,0 +1,151 @@
+package com.example.JavaSQL.sharding;
+
+import com.example.JavaSQL.cache.ReferenceDataCache;
+import com.example.JavaSQL.model.projection.CountryStudentsProfessors;
+import com.example.JavaSQL.model.projection.ModifiedUser;
+import com.example.JavaSQL.model.projection.PersonWithType;
+import com.example.JavaSQL.services.PersonIngestionService;
+import com.example.JavaSQL.services.PersonIngestionService.IngestionResult;
+import com.example.JavaSQL.services.PersonIngestionService.PersonIngest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+//three H2 shards plus the main database, which only holds country
+class ShardedPersonStoreTest {
+
+	//ids 1-4 in the main database: Poland is pinned to shard 2, Spain hashes to 2, Germany to 0 and France to 1
+	private static final Map<String, Integer> SHARD_OF = Map.of("Poland", 2, "Spain", 2, "Germany", 0, "France", 1);
+
+	private JdbcTemplate main;
+	private List<DataSource> shards;
+	private ShardedPersonStore store;
+	private PersonIngestionService ingestion;
+
+	@BeforeEach
+	void setUp() {
+		DriverManagerDataSource mainDatabase = database("main");
+		main = new JdbcTemplate(mainDatabase);
+		main.execute("""
+				CREATE TABLE country (
+					id_country bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+					name varchar(255) NOT NULL UNIQUE);
+				INSERT INTO country(name) VALUES ('Poland'), ('Spain'), ('Germany'), ('France');
+				""");
+		shards = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			shards.add(database("shard_" + i));
+		}
+		store = new ShardedPersonStore(shards, new ShardRouter(3, Map.of(1L, 2)), 2);
+		store.initializeSchema();
+		//the cache is only invalidated here, it never loads
+		ingestion = new PersonIngestionService(main, new DataSourceTransactionManager(mainDatabase),
+				new ReferenceDataCache(null, null), Optional.of(store), 2);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		store.close();
+		main.execute("SHUTDOWN");
+		shards.forEach(shard -> new JdbcTemplate(shard).execute("SHUTDOWN"));
+	}
+
+	@Test
+	void ingestedPersonsLiveOnTheShardOfTheirCountry() {
+		IngestionResult result = ingestion.ingest(List.of(
+				new PersonIngest("Nowak", "Poland", "Kraków", "Karmelicka 2", 1, null),
+				new PersonIngest("Kowalski", "Poland", "Kraków", "Karmelicka 2", null, null),
+				new PersonIngest("Müller", "Germany", "Berlin", "Schemteling 10", null, 1),
+				new PersonIngest("Dubois", "France", "Paris", "Rue 1", 1, null),
+				new PersonIngest("Rossi", "Italy", "Roma", "Via 1", null, null)));
+
+		assertThat(result.persons()).isEqualTo(5);
+		assertThat(result.countriesInserted()).isEqualTo(1);
+		assertThat(main.queryForObject("SELECT COUNT(*) FROM country", Long.class)).isEqualTo(5);
+		long italy = main.queryForObject("SELECT id_country FROM country WHERE name = 'Italy'", Long.class);
+		assertThat(count(store.shardOf(italy), "address WHERE id_country = " + italy)).isEqualTo(1);
+		assertThat(count(2, "person")).isEqualTo(store.shardOf(italy) == 2 ? 3 : 2);
+		assertThat(count(0, "professor")).isEqualTo(1);
+		//strided identities: the same student number on two shards, still two different ids
+		Set<Long> personIds = new HashSet<>();
+		for (int shard = 0; shard < 3; shard++) {
+			personIds.addAll(new JdbcTemplate(shards.get(shard)).queryForList("SELECT id_person FROM person", Long.class));
+		}
+		assertThat(personIds).hasSize(5);
+
+		assertThat(store.personsByCountryId(1)).containsExactlyInAnyOrder(
+				new PersonWithType("Nowak", "STUDENT"),
+				new PersonWithType("Kowalski", "UNKNOWN"));
+		assertThat(store.personsByCountryId(2)).isEmpty();
+	}
+
+	@Test
+	void fanOutAggregatesLikeTheSingleDatabase() {
+		List<PersonIngest> persons = new ArrayList<>();
+		List<String> countries = List.of("Poland", "Spain", "Germany", "France");
+		int number = 0;
+		for (String country : countries) {
+			//France only has persons without a role, it is left out like by the HAVING
+			for (int i = 0; i < 6; i++) {
+				number++;
+				boolean roles = !country.equals("France");
+				persons.add(new PersonIngest("Person" + number, country, country + "City", "Street " + i % 2,
+						roles && i % 2 == 0 ? number : null, roles && i % 3 == 1 ? number : null));
+			}
+		}
+		ingestion.ingest(persons);
+
+		Map<Long, String> names = Map.of(1L, "Poland", 2L, "Spain", 3L, "Germany", 4L, "France");
+		assertThat(store.studentsAndProfessorsGroupedByCountry(id -> Optional.ofNullable(names.get(id)))).containsExactly(
+				new CountryStudentsProfessors("Germany", 3L, 2L),
+				new CountryStudentsProfessors("Poland", 3L, 2L),
+				new CountryStudentsProfessors("Spain", 3L, 2L));
+		//Poland and Spain share shard 2, their partial counts stay apart
+		assertThat(count(2, "person")).isEqualTo(12);
+
+		List<ModifiedUser> modified = new ArrayList<>();
+		long rows = store.forEachModifiedUser(Instant.now().minusSeconds(60), Instant.now().plusSeconds(60), modified::add);
+		assertThat(rows).isEqualTo(24);
+		assertThat(modified).extracting(ModifiedUser::address).contains("GermanyCity, Street 1");
+	}
+
+	@Test
+	void failureOnOneShardRollsBackEveryShard() {
+		ingestion.ingest(List.of(new PersonIngest("Nowak", "Poland", "Kraków", "Karmelicka 2", 7, null)));
+
+		//Germany and France are written first, Poland's shard (the last one) then fails on the student number
+		assertThatThrownBy(() -> ingestion.ingest(List.of(
+				new PersonIngest("Müller", "Germany", "Berlin", "Schemteling 10", 7, null),
+				new PersonIngest("Dubois", "France", "Paris", "Rue 1", null, null),
+				new PersonIngest("Kowalski", "Poland", "Kraków", "Karmelicka 2", 7, null))))
+				.isInstanceOf(DataIntegrityViolationException.class);
+
+		assertThat(count(SHARD_OF.get("Germany"), "person")).isZero();
+		assertThat(count(SHARD_OF.get("France"), "address")).isZero();
+		assertThat(count(SHARD_OF.get("Poland"), "person")).isEqualTo(1);
+	}
+
+	private long count(int shard, String table) {
+		return new JdbcTemplate(shards.get(shard)).queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+	}
+
+	private static DriverManagerDataSource database(String name) {
+		return new DriverManagerDataSource("jdbc:h2:mem:" + name + "_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+	}
+}
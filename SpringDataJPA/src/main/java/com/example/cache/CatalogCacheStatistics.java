@@ -0,0 +1,41 @@
+package com.example.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//Hit/miss numbers per second-level cache region, all zeros unless the `cache` profile is active
+@Component
+public class CatalogCacheStatistics {
+
+	public record RegionStats(String region, long hits, long misses, long puts, long elementsInMemory) {
+	}
+
+	private final EntityManagerFactory entityManagerFactory;
+
+	public CatalogCacheStatistics(EntityManagerFactory entityManagerFactory) {
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	public List<RegionStats> regions() {
+		Statistics statistics = statistics();
+		List<RegionStats> regions = new ArrayList<>();
+		for (String region : statistics.getSecondLevelCacheRegionNames()) {
+			CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+			if (stats != null) {
+				regions.add(new RegionStats(region, stats.getHitCount(), stats.getMissCount(),
+						stats.getPutCount(), stats.getElementCountInMemory()));
+			}
+		}
+		return regions;
+	}
+
+	public Statistics statistics() {
+		return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+}
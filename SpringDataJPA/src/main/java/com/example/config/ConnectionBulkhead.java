@@ -0,0 +1,114 @@
+package com.example.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * With virtual threads every request gets its own thread, so thousands of them can race for a handful of
+ * Hikari connections and time out in the pool. This filter lets only as many API requests run at once as there
+ * are connections left for them and queues the rest (FIFO) for api.bulkhead.queue-timeout; requests that can't
+ * get in answer 503. Left for requests: maximum-pool-size minus the GroupCommitWriter flusher's connection and
+ * api.bulkhead.reserved-connections (loaders, other background work).
+ * A request that goes async (a group-commit save, a streamed body) keeps its permit until Spring MVC completes it.
+ */
+@Component
+public class ConnectionBulkhead extends OncePerRequestFilter {
+
+	private final Semaphore permits;
+	private final Duration queueTimeout;
+	private final int maxQueued;
+
+	public ConnectionBulkhead(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int connections,
+							  @Value("${api.bulkhead.reserved-connections:0}") int reserved,
+							  @Value("${app.group-commit.enabled:false}") boolean groupCommit,
+							  @Value("${api.bulkhead.queue-timeout:2s}") Duration queueTimeout,
+							  @Value("${api.bulkhead.max-queued:2000}") int maxQueued) {
+		this.permits = new Semaphore(Math.max(1, connections - reserved - (groupCommit ? 1 : 0)), true);
+		this.queueTimeout = queueTimeout;
+		this.maxQueued = maxQueued;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !request.getRequestURI().startsWith("/api/");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		if (permits.getQueueLength() >= maxQueued || !tryAcquire()) {
+			response.setHeader("Retry-After", "1");
+			response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "No database connection available");
+			return;
+		}
+
+		AtomicBoolean released = new AtomicBoolean();
+		Runnable release = () -> {
+			if (released.compareAndSet(false, true)) {
+				permits.release();
+			}
+		};
+		//registered before the handler runs, so an async result that completes at once can't be missed
+		WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+		asyncManager.registerDeferredResultInterceptor(ConnectionBulkhead.class.getName(), new DeferredResultProcessingInterceptor() {
+			@Override
+			public <T> void afterCompletion(NativeWebRequest webRequest, DeferredResult<T> deferredResult) {
+				release.run();
+			}
+		});
+		asyncManager.registerCallableInterceptor(ConnectionBulkhead.class.getName(), new CallableProcessingInterceptor() {
+			@Override
+			public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+				release.run();
+			}
+		});
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			if (!asyncManager.isConcurrentHandlingStarted()) {
+				release.run();
+			}
+		}
+	}
+
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return true;
+	}
+
+	public int availablePermits() {
+		return permits.availablePermits();
+	}
+
+	public int queued() {
+		return permits.getQueueLength();
+	}
+
+	private boolean tryAcquire() {
+		try {
+			return permits.tryAcquire(queueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package com.example.controller;
+
+import com.example.cache.CatalogCacheStatistics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class CacheStatisticsController {
+
+	private final CatalogCacheStatistics catalogCacheStatistics;
+
+	@GetMapping("/api/cache/regions")
+	public List<CatalogCacheStatistics.RegionStats> regions() {
+		return catalogCacheStatistics.regions();
+	}
+}
@@ -0,0 +1,86 @@
+package com.example.controller;
+
+import com.example.repository.CourseFetchPlan;
+import com.example.repository.CourseRepository;
+import com.example.search.SearchIndexService;
+import com.example.service.CourseCatalogService;
+import com.example.service.EnrollmentService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Collection;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/courses")
+@RequiredArgsConstructor
+public class CourseController {
+
+	public record CoursePage(List<CourseResponse> content, String nextToken, Long approximateTotal) {
+	}
+
+	private final CourseRepository courseRepository;
+	private final CourseCatalogService courseCatalogService;
+	private final SearchIndexService searchIndexService;
+	private final EnrollmentService enrollmentService;
+
+	//keyset pagination, pass the returned nextToken to get the following page
+	@GetMapping
+	@Transactional(readOnly = true)
+	public ResponseEntity<CoursePage> list(@RequestParam(defaultValue = "") String title,
+										   @RequestParam(defaultValue = "TITLE") CourseCatalogService.CourseOrder order,
+										   @RequestParam(defaultValue = "20") int size,
+										   @RequestParam(required = false) String token,
+										   @RequestParam(defaultValue = "false") boolean withTotal) {
+		if (size < 1) {
+			return ResponseEntity.badRequest().build();
+		}
+		CourseCatalogService.CourseSlice slice;
+		try {
+			slice = token == null
+					? courseCatalogService.firstPage(title, order, size)
+					: courseCatalogService.nextPage(token, size);
+		} catch (IllegalArgumentException e) {
+			//malformed or tampered token
+			return ResponseEntity.badRequest().build();
+		}
+		return ResponseEntity.ok(new CoursePage(
+				slice.content().stream().map(CourseResponse::catalog).toList(),
+				slice.nextToken(),
+				withTotal ? courseCatalogService.approximateTotal(title) : null));
+	}
+
+	@GetMapping("/{courseId}")
+	@Transactional(readOnly = true)
+	public ResponseEntity<CourseResponse> detail(@PathVariable Long courseId) {
+		return ResponseEntity.of(courseRepository.findById(courseId, CourseFetchPlan.DETAIL_WITH_ROSTER).map(CourseResponse::detail));
+	}
+
+	@GetMapping("/search")
+	@Transactional(readOnly = true)
+	public List<CourseResponse> search(@RequestParam String q, @RequestParam(defaultValue = "20") int limit) {
+		return searchIndexService.searchCourses(q, limit).stream().map(CourseResponse::catalog).toList();
+	}
+
+	//body: student ids, answers the number of join rows added/removed
+	@PostMapping("/{courseId}/students")
+	public ResponseEntity<Integer> enroll(@PathVariable Long courseId, @RequestBody Collection<Long> studentIds) {
+		try {
+			return ResponseEntity.ok(enrollmentService.enroll(courseId, studentIds));
+		} catch (EntityNotFoundException e) {
+			return ResponseEntity.notFound().build();
+		}
+	}
+
+	@DeleteMapping("/{courseId}/students")
+	public ResponseEntity<Integer> unenroll(@PathVariable Long courseId, @RequestBody Collection<Long> studentIds) {
+		try {
+			return ResponseEntity.ok(enrollmentService.unenroll(courseId, studentIds));
+		} catch (EntityNotFoundException e) {
+			return ResponseEntity.notFound().build();
+		}
+	}
+}
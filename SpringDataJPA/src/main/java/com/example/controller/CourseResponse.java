@@ -0,0 +1,30 @@
+package com.example.controller;
+
+import com.example.model.Course;
+import com.example.model.Student;
+
+import java.util.List;
+
+//Course without the Course <-> CourseMaterial cycle and without touching lazy associations that weren't fetched
+public record CourseResponse(Long courseId, String title, Integer credit, Long teacherId, String teacherName,
+							 String materialUrl, List<Student> students) {
+
+	static CourseResponse catalog(Course course) {
+		return of(course, null);
+	}
+
+	static CourseResponse detail(Course course) {
+		return of(course, course.getStudentList() == null ? List.of() : List.copyOf(course.getStudentList()));
+	}
+
+	private static CourseResponse of(Course course, List<Student> students) {
+		return new CourseResponse(
+				course.getCourseId(),
+				course.getTitle(),
+				course.getCredit(),
+				course.getTeacher() == null ? null : course.getTeacher().getTeacherId(),
+				course.getTeacher() == null ? null : course.getTeacher().getFirstName() + " " + course.getTeacher().getLastName(),
+				course.getCourseMaterial() == null ? null : course.getCourseMaterial().getUrl(),
+				students);
+	}
+}
@@ -0,0 +1,119 @@
+package com.example.controller;
+
+import com.example.model.Student;
+import com.example.model.embeddable.Guardian;
+import com.example.repository.StudentRepository;
+import com.example.search.SearchIndexService;
+import com.example.service.GroupCommitWriter;
+import com.example.service.StudentNameBatchUpdater;
+import com.example.service.StudentNameBatchUpdater.NameChange;
+import com.example.service.StudentNameBatchUpdater.NameChangeResult;
+import com.example.service.StudentUpdateService;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@RestController
+@RequestMapping("/api/students")
+@RequiredArgsConstructor
+public class StudentController {
+
+	private final StudentRepository studentRepository;
+	private final SearchIndexService searchIndexService;
+	private final StudentNameBatchUpdater studentNameBatchUpdater;
+	private final StudentUpdateService studentUpdateService;
+	private final ObjectProvider<GroupCommitWriter> groupCommitWriter;
+
+	@GetMapping("/{studentId}")
+	public ResponseEntity<Student> get(@PathVariable Long studentId) {
+		return ResponseEntity.of(studentRepository.findById(studentId));
+	}
+
+	@GetMapping("/by-email/{emailId}")
+	public ResponseEntity<Student> getByEmail(@PathVariable String emailId) {
+		return ResponseEntity.of(Optional.ofNullable(studentRepository.getStudentByEmailAddress(emailId)));
+	}
+
+	@GetMapping("/search")
+	public List<Student> search(@RequestParam String q, @RequestParam(defaultValue = "20") int limit) {
+		return searchIndexService.searchStudents(q, limit);
+	}
+
+	//body: NewStudent, id and version are never taken from the client; 409 when the email is already taken
+	@PostMapping
+	public CompletableFuture<ResponseEntity<Student>> create(@Valid @RequestBody NewStudent request) {
+		Student student = request.toStudent();
+		GroupCommitWriter writer = groupCommitWriter.getIfAvailable();
+		if (writer == null) {
+			try {
+				return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CREATED).body(studentRepository.save(student)));
+			} catch (DataIntegrityViolationException e) {
+				return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT).build());
+			}
+		}
+		//the id is set on the instance by the group's persist
+		return writer.save(student).handle((id, failure) -> {
+			if (failure == null) {
+				return ResponseEntity.status(HttpStatus.CREATED).body(student);
+			}
+			if (failure instanceof DataIntegrityViolationException) {
+				return ResponseEntity.status(HttpStatus.CONFLICT).build();
+			}
+			throw new CompletionException(failure);
+		});
+	}
+
+	public record NewStudent(String firstName, String lastName, @NotBlank String emailId, Guardian guardian) {
+
+		Student toStudent() {
+			return Student.builder()
+					.firstName(firstName)
+					.lastName(lastName)
+					.emailId(emailId)
+					.guardian(guardian)
+					.build();
+		}
+	}
+
+	//body: the fields to change; 409 when other writers kept winning for students.update.max-attempts attempts
+	@PatchMapping("/by-email/{emailId}")
+	public ResponseEntity<Student> update(@PathVariable String emailId, @RequestBody StudentPatch patch) {
+		try {
+			return ResponseEntity.ok(studentUpdateService.update(emailId, patch::applyTo).student());
+		} catch (EntityNotFoundException e) {
+			return ResponseEntity.notFound().build();
+		} catch (OptimisticLockingFailureException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).build();
+		}
+	}
+
+	public record StudentPatch(String firstName, String lastName) {
+
+		void applyTo(Student student) {
+			if (firstName != null) {
+				student.setFirstName(firstName);
+			}
+			if (lastName != null) {
+				student.setLastName(lastName);
+			}
+		}
+	}
+
+	//bulk first-name sync by email, one result per email
+	@PatchMapping("/first-names")
+	public List<NameChangeResult> updateFirstNames(@RequestBody List<NameChange> changes) {
+		return studentNameBatchUpdater.updateFirstNames(changes);
+	}
+}
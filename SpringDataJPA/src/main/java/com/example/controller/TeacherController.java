@@ -0,0 +1,48 @@
+package com.example.controller;
+
+import com.example.model.Teacher;
+import com.example.repository.TeacherRepository;
+import com.example.service.GroupCommitWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/teachers")
+@RequiredArgsConstructor
+public class TeacherController {
+
+	private final TeacherRepository teacherRepository;
+	private final ObjectProvider<GroupCommitWriter> groupCommitWriter;
+
+	@GetMapping
+	public List<Teacher> list() {
+		return teacherRepository.findAll();
+	}
+
+	@GetMapping("/{teacherId}")
+	public ResponseEntity<Teacher> get(@PathVariable Long teacherId) {
+		return ResponseEntity.of(teacherRepository.findById(teacherId));
+	}
+
+	//body: NewTeacher, id and version are never taken from the client
+	@PostMapping
+	@ResponseStatus(HttpStatus.CREATED)
+	public CompletableFuture<Teacher> create(@RequestBody NewTeacher request) {
+		Teacher teacher = Teacher.builder().firstName(request.firstName()).lastName(request.lastName()).build();
+		GroupCommitWriter writer = groupCommitWriter.getIfAvailable();
+		if (writer == null) {
+			return CompletableFuture.completedFuture(teacherRepository.save(teacher));
+		}
+		//the id is set on the instance by the group's persist
+		return writer.save(teacher).thenApply(id -> teacher);
+	}
+
+	public record NewTeacher(String firstName, String lastName) {
+	}
+}
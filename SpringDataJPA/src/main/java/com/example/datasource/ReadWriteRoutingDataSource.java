@@ -0,0 +1,118 @@
+package com.example.datasource;
+
+import com.example.datasource.RoutingDataSourceProperties.Strategy;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out primary connections to write transactions (and to anything outside a transaction) and replica connections
+ * to read-only transactions. The decision uses the transaction's read-only flag, which is only set after the
+ * transaction manager asked for a connection, so this has to sit behind a LazyConnectionDataSourceProxy.
+ * <p>
+ * Read-your-writes is per thread: for read-your-writes-window after a write transaction commits, read-only
+ * transactions on the same thread stay on the primary. With virtual threads every request has its own thread,
+ * so this covers reads later in the same request, not the client's next request.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+	public static final String PRIMARY = "primary";
+
+	private final Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+	private final List<String> replicas;
+	private final Strategy strategy;
+	private final long readYourWritesNanos;
+	private final AtomicInteger next = new AtomicInteger();
+	private final ThreadLocal<Long> lastWrite = new ThreadLocal<>();
+	private final Map<String, Counter> routed = new HashMap<>();
+
+	//replica pools are named replica-0, replica-1, ...
+	public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, Strategy strategy,
+									  Duration readYourWritesWindow, MeterRegistry meterRegistry) {
+		pools.put(PRIMARY, primary);
+		for (int i = 0; i < replicas.size(); i++) {
+			pools.put("replica-" + i, replicas.get(i));
+		}
+		this.replicas = pools.keySet().stream().filter(name -> !PRIMARY.equals(name)).toList();
+		this.strategy = strategy;
+		this.readYourWritesNanos = readYourWritesWindow.toNanos();
+		pools.keySet().forEach(name -> routed.put(name, meterRegistry == null ? null
+				: Counter.builder("datasource.routing.connections")
+						.description("Connections handed out per pool")
+						.tag("pool", name)
+						.register(meterRegistry)));
+
+		setTargetDataSources(new HashMap<>(pools));
+		setDefaultTargetDataSource(primary);
+		setLenientFallback(false);
+		afterPropertiesSet();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		String pool = route();
+		Counter counter = routed.get(pool);
+		if (counter != null) {
+			counter.increment();
+		}
+		return pool;
+	}
+
+	String route() {
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			if (TransactionSynchronizationManager.isSynchronizationActive()) {
+				//measured from the commit, a long write transaction must not use up the window
+				TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+					@Override
+					public void afterCommit() {
+						lastWrite.set(System.nanoTime());
+					}
+				});
+			}
+			return PRIMARY;
+		}
+		Long written = lastWrite.get();
+		if (replicas.isEmpty() || (written != null && System.nanoTime() - written < readYourWritesNanos)) {
+			return PRIMARY;
+		}
+		return switch (strategy) {
+			case ROUND_ROBIN -> replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+			case LEAST_LOADED -> leastLoadedReplica();
+		};
+	}
+
+	private String leastLoadedReplica() {
+		String best = replicas.getFirst();
+		int bestLoad = Integer.MAX_VALUE;
+		for (String replica : replicas) {
+			HikariPoolMXBean pool = pools.get(replica).getHikariPoolMXBean();
+			int load = pool == null ? 0 : pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+			if (load < bestLoad) {
+				best = replica;
+				bestLoad = load;
+			}
+		}
+		return best;
+	}
+
+	public Map<String, HikariDataSource> pools() {
+		return pools;
+	}
+
+	@Override
+	public void close() {
+		pools.values().forEach(HikariDataSource::close);
+	}
+}
@@ -0,0 +1,56 @@
+package com.example.datasource;
+
+import com.example.datasource.RoutingDataSourceProperties.Pool;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+//Replaces the spring.datasource pool when app.datasource.routing.enabled=true
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+public class RoutingDataSourceConfig {
+
+	@Bean
+	ReadWriteRoutingDataSource routingDataSource(RoutingDataSourceProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+		MeterRegistry registry = meterRegistry.getIfAvailable();
+		List<HikariDataSource> replicas = new ArrayList<>();
+		for (int i = 0; i < properties.replicas().size(); i++) {
+			replicas.add(pool("replica-" + i, properties.replicas().get(i), registry, true));
+		}
+		return new ReadWriteRoutingDataSource(pool(ReadWriteRoutingDataSource.PRIMARY, properties.primary(), registry, false),
+				replicas, properties.strategy(), properties.readYourWritesWindow(), registry);
+	}
+
+	@Bean
+	@Primary
+	DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+		return new LazyConnectionDataSourceProxy(routingDataSource);
+	}
+
+	//Hikari publishes hikaricp.* meters per pool name
+	static HikariDataSource pool(String name, Pool pool, MeterRegistry meterRegistry, boolean readOnly) {
+		HikariConfig config = new HikariConfig();
+		config.setPoolName(name);
+		config.setJdbcUrl(pool.url());
+		config.setUsername(pool.username());
+		config.setPassword(pool.password());
+		config.setMaximumPoolSize(pool.maximumPoolSize());
+		config.setReadOnly(readOnly);
+		if (meterRegistry != null) {
+			config.setMetricRegistry(meterRegistry);
+		}
+		return new HikariDataSource(config);
+	}
+}
@@ -0,0 +1,31 @@
+package com.example.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * app.datasource.routing.*: one primary pool for writes, replica pools for read-only transactions.
+ *
+ * @param readYourWritesWindow after a write transaction a thread keeps reading from the primary for this long,
+ *                             so it doesn't miss its own change on a lagging replica
+ */
+@ConfigurationProperties("app.datasource.routing")
+public record RoutingDataSourceProperties(
+		boolean enabled,
+		Pool primary,
+		@DefaultValue List<Pool> replicas,
+		@DefaultValue("ROUND_ROBIN") Strategy strategy,
+		@DefaultValue("2s") Duration readYourWritesWindow) {
+
+	public enum Strategy {
+		ROUND_ROBIN,
+		//fewest active + waiting connections
+		LEAST_LOADED
+	}
+
+	public record Pool(String url, String username, String password, @DefaultValue("10") int maximumPoolSize) {
+	}
+}
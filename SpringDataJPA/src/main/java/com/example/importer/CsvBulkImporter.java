@@ -0,0 +1,134 @@
+package com.example.importer;
+
+import com.example.model.Course;
+import com.example.model.Student;
+import com.example.model.Teacher;
+import com.example.model.embeddable.Guardian;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Streams large CSV files into the database chunk by chunk.
+ * Every chunk is written in its own transaction and the persistence context is cleared afterwards,
+ * so memory stays flat no matter how many rows the file holds.
+ *
+ * Expected columns (first line is a header and is skipped):
+ * teachers.csv           - first_name,last_name
+ * students.csv           - first_name,last_name,email_address,guardian_name,guardian_email,guardian_mobile
+ * courses.csv            - title,credit,teacher_id
+ * student_course_map.csv - course_id,student_id
+ */
+@Component
+public class CsvBulkImporter {
+
+	private final EntityManager entityManager;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final int chunkSize;
+	private final int batchSize;
+
+	public CsvBulkImporter(EntityManager entityManager,
+						   JdbcTemplate jdbcTemplate,
+						   PlatformTransactionManager transactionManager,
+						   @Value("${importer.csv.chunk-size:5000}") int chunkSize,
+						   @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+		this.entityManager = entityManager;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.chunkSize = chunkSize;
+		this.batchSize = batchSize;
+	}
+
+	public ImportResult importTeachers(Path file) throws IOException {
+		return persistChunks(file, row -> Teacher.builder()
+				.firstName(value(row, 0))
+				.lastName(value(row, 1))
+				.build());
+	}
+
+	public ImportResult importStudents(Path file) throws IOException {
+		return persistChunks(file, row -> Student.builder()
+				.firstName(value(row, 0))
+				.lastName(value(row, 1))
+				.emailId(value(row, 2))
+				.guardian(new Guardian(value(row, 3), value(row, 4), value(row, 5)))
+				.build());
+	}
+
+	public ImportResult importCourses(Path file) throws IOException {
+		return persistChunks(file, row -> {
+			String teacherId = value(row, 2);
+			return Course.builder()
+					.title(value(row, 0))
+					.credit(value(row, 1) == null ? null : Integer.valueOf(value(row, 1)))
+					//reference only, the teacher row is never loaded
+					.teacher(teacherId == null ? null : entityManager.getReference(Teacher.class, Long.valueOf(teacherId)))
+					.build();
+		});
+	}
+
+	public ImportResult importEnrollments(Path file) throws IOException {
+		long start = System.nanoTime();
+		//(course_id, student_id) is the key, pairs already enrolled (also concurrently) are skipped
+		String insert = isPostgres()
+				? "INSERT INTO student_course_map(course_id, student_id) VALUES (?, ?) ON CONFLICT (course_id, student_id) DO NOTHING"
+				: """
+				MERGE INTO student_course_map m USING (VALUES (CAST(? AS bigint), CAST(? AS bigint))) v(course_id, student_id)
+				ON m.course_id = v.course_id AND m.student_id = v.student_id
+				WHEN NOT MATCHED THEN INSERT (course_id, student_id) VALUES (v.course_id, v.student_id)
+				""";
+		long rows;
+		try (CsvChunkReader reader = new CsvChunkReader(file, chunkSize)) {
+			rows = reader.forEachChunk(chunk -> transactionTemplate.executeWithoutResult(status ->
+					jdbcTemplate.batchUpdate(
+							insert,
+							chunk,
+							batchSize,
+							(ps, row) -> {
+								ps.setLong(1, Long.parseLong(row[0].trim()));
+								ps.setLong(2, Long.parseLong(row[1].trim()));
+							})));
+		}
+		return new ImportResult(file.getFileName().toString(), rows, Duration.ofNanos(System.nanoTime() - start));
+	}
+
+	private ImportResult persistChunks(Path file, Function<String[], Object> mapper) throws IOException {
+		long start = System.nanoTime();
+		long rows;
+		try (CsvChunkReader reader = new CsvChunkReader(file, chunkSize)) {
+			rows = reader.forEachChunk(chunk -> transactionTemplate.executeWithoutResult(status -> {
+				for (String[] row : chunk) {
+					entityManager.persist(mapper.apply(row));
+				}
+				//inserts go out in hibernate.jdbc.batch_size batches, then the chunk is dropped from memory
+				entityManager.flush();
+				entityManager.clear();
+			}));
+		}
+		return new ImportResult(file.getFileName().toString(), rows, Duration.ofNanos(System.nanoTime() - start));
+	}
+
+	private boolean isPostgres() {
+		return "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+				connection.getMetaData().getDatabaseProductName()));
+	}
+
+	private static String value(String[] row, int index) {
+		if (index >= row.length) {
+			return null;
+		}
+		String value = row[index].trim();
+		return value.isEmpty() ? null : value;
+	}
+}
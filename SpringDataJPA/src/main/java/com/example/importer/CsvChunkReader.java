@@ -0,0 +1,97 @@
+package com.example.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads a CSV file with a header line in fixed-size chunks, so only one chunk of rows is in memory at a time.
+ * Supports quoted fields ("a, b") and escaped quotes (""), but not line breaks inside a field.
+ */
+public class CsvChunkReader implements AutoCloseable {
+
+	private final BufferedReader reader;
+	private final int chunkSize;
+	private final List<String> header;
+
+	public CsvChunkReader(Path file, int chunkSize) throws IOException {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize must be positive");
+		}
+		this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+		this.chunkSize = chunkSize;
+		String headerLine = reader.readLine();
+		this.header = headerLine == null ? List.of() : List.of(parseLine(headerLine));
+	}
+
+	public List<String> header() {
+		return header;
+	}
+
+	/**
+	 * Calls the consumer once per chunk. The list handed over is reused, do not keep a reference to it.
+	 */
+	public long forEachChunk(Consumer<List<String[]>> consumer) {
+		List<String[]> chunk = new ArrayList<>(chunkSize);
+		long rows = 0;
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isBlank()) {
+					continue;
+				}
+				chunk.add(parseLine(line));
+				rows++;
+				if (chunk.size() == chunkSize) {
+					consumer.accept(chunk);
+					chunk.clear();
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		if (!chunk.isEmpty()) {
+			consumer.accept(chunk);
+		}
+		return rows;
+	}
+
+	static String[] parseLine(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields.toArray(String[]::new);
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+}
@@ -0,0 +1,16 @@
+package com.example.importer;
+
+import java.time.Duration;
+
+public record ImportResult(String source, long rows, Duration elapsed) {
+
+	public double rowsPerSecond() {
+		long millis = Math.max(1, elapsed.toMillis());
+		return rows * 1000.0 / millis;
+	}
+
+	@Override
+	public String toString() {
+		return "%s: %d rows in %d ms (%.0f rows/sec)".formatted(source, rows, elapsed.toMillis(), rowsPerSecond());
+	}
+}
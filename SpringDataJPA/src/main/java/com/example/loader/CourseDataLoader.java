@@ -7,21 +7,26 @@ import com.example.model.Teacher;
 import com.example.model.embeddable.Guardian;
 import com.example.repository.CourseMaterialRepository;
 import com.example.repository.CourseRepository;
+import com.example.service.CourseCatalogService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 
 @Component
+@Profile("!prod & !benchmark")  //seed data, prod runs on the migrated schema and benchmarks bring their own rows
 @RequiredArgsConstructor
 public class CourseDataLoader implements CommandLineRunner {
 
 	private final CourseRepository courseRepository;
 	private final CourseMaterialRepository courseMaterialRepository;
+	private final CourseCatalogService courseCatalogService;
 
 	@Override
 	public void run(String... args) throws Exception {
@@ -76,9 +81,10 @@ public class CourseDataLoader implements CommandLineRunner {
 
 		Pageable firstPageWithThreeRecords = PageRequest.of(0, 3);
 
-		List<Course> courseList = courseRepository.findAll(firstPageWithThreeRecords).getContent();
-		long totalElements = courseRepository.findAll(firstPageWithThreeRecords).getTotalElements();
-		long totalEPages = courseRepository.findAll(firstPageWithThreeRecords).getTotalPages();
+		Page<Course> firstPage = courseRepository.findAll(firstPageWithThreeRecords);   //one page query + one count query
+		List<Course> courseList = firstPage.getContent();
+		long totalElements = firstPage.getTotalElements();
+		long totalEPages = firstPage.getTotalPages();
 
 		System.out.println("Courses = " + courseList);
 		System.out.println("totalElements = " + totalElements);
@@ -95,6 +101,14 @@ public class CourseDataLoader implements CommandLineRunner {
 
 		System.out.println(courseRepository.findByTitleContaining("kurs", sortByTitle).getContent());
 
+		//keyset pagination - no OFFSET, no count query
+
+		CourseCatalogService.CourseSlice byCredit = courseCatalogService.firstPage("", CourseCatalogService.CourseOrder.CREDIT, 2);
+		System.out.println(byCredit.content());
+		if (byCredit.hasNext()) {
+			System.out.println(courseCatalogService.nextPage(byCredit.nextToken(), 2).content());
+		}
+
 
 		//save ManyToMany
 
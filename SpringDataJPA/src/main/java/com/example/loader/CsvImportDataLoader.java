@@ -0,0 +1,45 @@
+package com.example.loader;
+
+import com.example.importer.CsvBulkImporter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+//Runs only when importer.csv.directory is set, e.g. --importer.csv.directory=/data/university
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "importer.csv.directory")
+public class CsvImportDataLoader implements CommandLineRunner {
+
+	private final CsvBulkImporter csvBulkImporter;
+
+	@Value("${importer.csv.directory}")
+	private Path directory;
+
+	@Override
+	public void run(String... args) throws Exception {
+		//FK order: teachers before courses, students and courses before enrollments
+		Path teachers = directory.resolve("teachers.csv");
+		Path students = directory.resolve("students.csv");
+		Path courses = directory.resolve("courses.csv");
+		Path enrollments = directory.resolve("student_course_map.csv");
+
+		if (Files.exists(teachers)) {
+			System.out.println(csvBulkImporter.importTeachers(teachers));
+		}
+		if (Files.exists(students)) {
+			System.out.println(csvBulkImporter.importStudents(students));
+		}
+		if (Files.exists(courses)) {
+			System.out.println(csvBulkImporter.importCourses(courses));
+		}
+		if (Files.exists(enrollments)) {
+			System.out.println(csvBulkImporter.importEnrollments(enrollments));
+		}
+	}
+}
@@ -5,9 +5,11 @@ import com.example.model.embeddable.Guardian;
 import com.example.repository.StudentRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 @Component
+@Profile("!prod & !benchmark")
 @RequiredArgsConstructor
 public class StudentDataLoader implements CommandLineRunner {
 
@@ -5,11 +5,13 @@ import com.example.model.Teacher;
 import com.example.repository.TeacherRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 
 @Component
+@Profile("!prod & !benchmark")
 @RequiredArgsConstructor
 public class TeacherDataLoader implements CommandLineRunner {
 
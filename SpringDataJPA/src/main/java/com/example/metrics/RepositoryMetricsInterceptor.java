@@ -0,0 +1,100 @@
+package com.example.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.BaseStream;
+
+/**
+ * Wraps every Spring Data repository proxy: latency timer with percentile histogram, rows returned,
+ * JDBC statements issued and the slow-query log.
+ */
+class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+	static final String INVOCATIONS = "repository.invocations";
+	static final String ROWS = "repository.rows";
+	static final String STATEMENTS = "repository.statements";
+
+	private final String repository;
+	private final MeterRegistry meterRegistry;
+	private final SlowQueryLog slowQueryLog;
+
+	RepositoryMetricsInterceptor(Class<?> repositoryInterface, MeterRegistry meterRegistry, SlowQueryLog slowQueryLog) {
+		this.repository = repositoryInterface.getSimpleName();
+		this.meterRegistry = meterRegistry;
+		this.slowQueryLog = slowQueryLog;
+	}
+
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		String method = invocation.getMethod().getName();
+		String outcome = "success";
+		Object result = null;
+		SqlStatementRecorder.begin();
+		long start = System.nanoTime();
+		try {
+			result = invocation.proceed();
+			return result;
+		} catch (Throwable e) {
+			outcome = "error";
+			throw e;
+		} finally {
+			long nanos = System.nanoTime() - start;
+			List<String> sql = SqlStatementRecorder.end();
+
+			Timer.builder(INVOCATIONS)
+					.tag("repository", repository)
+					.tag("method", method)
+					.tag("outcome", outcome)
+					.publishPercentileHistogram()
+					.publishPercentiles(0.5, 0.95, 0.99)
+					.register(meterRegistry)
+					.record(nanos, TimeUnit.NANOSECONDS);
+			DistributionSummary.builder(STATEMENTS)
+					.tag("repository", repository)
+					.tag("method", method)
+					.register(meterRegistry)
+					.record(sql.size());
+			long rows = rows(result);
+			if (rows >= 0) {
+				DistributionSummary.builder(ROWS)
+						.tag("repository", repository)
+						.tag("method", method)
+						.register(meterRegistry)
+						.record(rows);
+			}
+			if (slowQueryLog.isSlow(nanos)) {
+				slowQueryLog.record(repository + "." + method, nanos, sql, invocation.getArguments());
+			}
+		}
+	}
+
+	//-1 when the result isn't a row container (counts, streams consumed later, void)
+	static long rows(Object result) {
+		if (result instanceof Optional<?> optional) {
+			return optional.map(RepositoryMetricsInterceptor::rows).orElse(0L);
+		}
+		if (result instanceof Collection<?> collection) {
+			return collection.size();
+		}
+		if (result instanceof Slice<?> slice) {
+			return slice.getNumberOfElements();
+		}
+		if (result instanceof Window<?> window) {
+			return window.size();
+		}
+		if (result == null || result instanceof Number || result instanceof Boolean || result instanceof BaseStream<?, ?>) {
+			return -1;
+		}
+		return 1;
+	}
+}
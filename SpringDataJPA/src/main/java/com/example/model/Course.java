@@ -1,27 +1,52 @@
 package com.example.model;
 
+import com.example.search.SearchIndexListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OptimisticLock;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
+@EntityListeners(SearchIndexListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
 @Builder
 @Table(name = "course")
+@NamedEntityGraph(
+		name = Course.CATALOG_LIST,
+		attributeNodes = {@NamedAttributeNode("teacher"), @NamedAttributeNode("courseMaterial")}
+)
+@NamedEntityGraph(
+		name = Course.DETAIL_WITH_ROSTER,
+		attributeNodes = {@NamedAttributeNode("teacher"), @NamedAttributeNode("courseMaterial"), @NamedAttributeNode("studentList")}
+)
 public class Course {
+	//fetch plans, see CourseFetchPlan
+	public static final String CATALOG_LIST = "Course.catalogList";
+	public static final String DETAIL_WITH_ROSTER = "Course.detailWithRoster";
+
 	@Id
 	@SequenceGenerator(
 			name = "course_seq",
 			sequenceName = "course_seq",
-			allocationSize = 1
+			allocationSize = 50
 	)
 	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "course_seq")
 	private Long courseId;
 
+	@Version
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	private Long version;
+
 	private String title;
 
 	private Integer credit;
@@ -47,14 +72,25 @@ public class Course {
 			inverseJoinColumns = @JoinColumn(
 					name = "student_id",				//for whatever is in variable (here Student)
 					referencedColumnName = "studentId"
-			)
+			),
+			indexes = @Index(name = "student_course_map_student", columnList = "student_id")
 	)
-	private List<Student> studentList;
+	//a Set, so adding or removing one student writes one join row (a List/bag rewrites the whole roster)
+	//and (course_id, student_id) becomes the primary key. Bulk changes by id: EnrollmentService.
+	//Enrollment doesn't bump the course version, like the native enrollStudents/unenrollStudents.
+	@OptimisticLock(excluded = true)
+	private Set<Student> studentList;
 
 	public void addStudent(Student student){
 		if(studentList == null){
-			studentList = new ArrayList<Student>();
+			studentList = new HashSet<Student>();
 		}
 		studentList.add(student);
 	}
+
+	public void removeStudent(Student student){
+		if(studentList != null){
+			studentList.remove(student);
+		}
+	}
 }
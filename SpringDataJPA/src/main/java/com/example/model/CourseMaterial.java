@@ -5,8 +5,12 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
@@ -17,7 +21,7 @@ public class CourseMaterial {
 	@SequenceGenerator(
 			name = "course_material_seq",
 			sequenceName = "course_material_seq",
-			allocationSize = 1
+			allocationSize = 50
 	)
 	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "course_material_seq")
 	@Column(name = "course_material_id")
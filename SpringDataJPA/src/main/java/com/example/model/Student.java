@@ -1,28 +1,33 @@
 package com.example.model;
 
 import com.example.model.embeddable.Guardian;
+import com.example.search.SearchIndexListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 @Table(
 		name = "student",
 		uniqueConstraints = @UniqueConstraint(columnNames = {"email_address"})
 )
 @Data
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)  //email is the natural key, stable before and after persist
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Entity
+@EntityListeners(SearchIndexListener.class)
 public class Student {
 	@Id
 	@SequenceGenerator(
 			name = "student_seq",
 			sequenceName = "student_seq",
-			allocationSize = 1
+			allocationSize = 50
 	)
 	@GeneratedValue(
 			strategy = GenerationType.SEQUENCE,
@@ -30,6 +35,12 @@ public class Student {
 	)
 	private Long studentId;
 
+	//optimistic lock; native updates bump it themselves (version = version + 1)
+	@Version
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	private Long version;
+
 	@Column(name = "first_name")
 	private String firstName;
 
@@ -37,6 +48,7 @@ public class Student {
 	private String lastName;
 
 	@NotBlank
+	@EqualsAndHashCode.Include
 	@Column(name = "email_address", nullable = false)
 	private String emailId;
 
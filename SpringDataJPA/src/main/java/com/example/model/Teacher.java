@@ -5,10 +5,15 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,12 +24,17 @@ public class Teacher {
 	@SequenceGenerator(
 			name = "teacher_seq",
 			sequenceName = "teacher_seq",
-			allocationSize = 1
+			allocationSize = 20
 	)
 	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "teacher_seq")
 	@Column(name = "teacher_id")
 	private Long teacherId;
 
+	@Version
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	private Long version;
+
 	@Column(name = "first_name")
 	private String firstName;
 
@@ -0,0 +1,21 @@
+package com.example.repository;
+
+import com.example.model.Course;
+
+//Named entity graphs on Course, fetched with joins instead of one select per association
+public enum CourseFetchPlan {
+	//teacher + course material, for listing many courses
+	CATALOG_LIST(Course.CATALOG_LIST),
+	//teacher + course material + enrolled students, for a single course page
+	DETAIL_WITH_ROSTER(Course.DETAIL_WITH_ROSTER);
+
+	private final String entityGraph;
+
+	CourseFetchPlan(String entityGraph) {
+		this.entityGraph = entityGraph;
+	}
+
+	public String entityGraph() {
+		return entityGraph;
+	}
+}
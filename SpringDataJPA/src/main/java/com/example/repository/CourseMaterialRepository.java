@@ -1,11 +1,18 @@
 package com.example.repository;
 
 import com.example.model.CourseMaterial;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface CourseMaterialRepository extends JpaRepository<CourseMaterial, Long> {
 
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+	List<CourseMaterial> findAll();
 
 }
@@ -1,15 +1,47 @@
 package com.example.repository;
 
 import com.example.model.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface CourseRepository extends JpaRepository<Course, Long> {
+public interface CourseRepository extends JpaRepository<Course, Long>, CourseRepositoryCustom {
 
+	//query cache (content and count query), only used with the `cache` profile
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	Page<Course> findByTitleContaining(String title, Pageable pageable);
 
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+	List<Course> findAll();
+
+	long countByTitleContaining(String title);
+
+	//keyset (seek) pagination, no OFFSET and no count query; courseId breaks ties so the order is total.
+	//A null key cannot be seeked past (and sorts differently per database), so those rows are left out.
+	Window<Course> findByTitleContainingOrderByTitleAscCourseIdAsc(String title, ScrollPosition position, Limit limit);
+
+	Window<Course> findByTitleContainingAndCreditNotNullOrderByCreditAscCourseIdAsc(String title, ScrollPosition position, Limit limit);
+
+	//Unenrollment by id, only the present join rows are deleted; the roster is never loaded (enrollStudents: CourseRepositoryCustom).
+	//Native writes would evict the whole second-level cache, the query space limits that to student_course_map.
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "student_course_map"))
+	@Query(nativeQuery = true,
+			value = "DELETE FROM student_course_map WHERE course_id = :courseId AND student_id IN (:studentIds)")
+	int unenrollStudents(@Param("courseId") Long courseId, @Param("studentIds") Collection<Long> studentIds);
 }
@@ -0,0 +1,19 @@
+package com.example.repository;
+
+import com.example.model.Course;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface CourseRepositoryCustom {
+
+	List<Course> findAll(CourseFetchPlan fetchPlan);
+
+	List<Course> findByTitleContaining(String title, CourseFetchPlan fetchPlan);
+
+	Optional<Course> findById(Long courseId, CourseFetchPlan fetchPlan);
+
+	//Enrollment by id, only the missing join rows are written and the roster is never loaded; unknown students are skipped
+	int enrollStudents(Long courseId, Collection<Long> studentIds);
+}
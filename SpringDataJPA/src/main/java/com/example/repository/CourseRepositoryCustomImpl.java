@@ -0,0 +1,78 @@
+package com.example.repository;
+
+import com.example.model.Course;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.query.NativeQuery;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+class CourseRepositoryCustomImpl implements CourseRepositoryCustom {
+
+	private final EntityManager entityManager;
+
+	@Override
+	public List<Course> findAll(CourseFetchPlan fetchPlan) {
+		return withFetchPlan(entityManager.createQuery("select c from Course c order by c.courseId", Course.class), fetchPlan)
+				.getResultList();
+	}
+
+	@Override
+	public List<Course> findByTitleContaining(String title, CourseFetchPlan fetchPlan) {
+		return withFetchPlan(entityManager.createQuery(
+						"select c from Course c where c.title like :title order by c.title, c.courseId", Course.class), fetchPlan)
+				.setParameter("title", "%" + title + "%")
+				.getResultList();
+	}
+
+	@Override
+	public Optional<Course> findById(Long courseId, CourseFetchPlan fetchPlan) {
+		return withFetchPlan(entityManager.createQuery("select c from Course c where c.courseId = :courseId", Course.class), fetchPlan)
+				.setParameter("courseId", courseId)
+				.getResultStream()
+				.findFirst();
+	}
+
+	//Concurrent enrollments of the same pair must not fail on the (course_id, student_id) key, which a
+	//NOT EXISTS check doesn't guarantee under READ COMMITTED: ON CONFLICT on PostgreSQL, MERGE elsewhere.
+	//Like @Modifying(flushAutomatically, clearAutomatically), and only student_course_map is evicted from the cache.
+	@Override
+	public int enrollStudents(Long courseId, Collection<Long> studentIds) {
+		entityManager.flush();
+		int inserted = entityManager.createNativeQuery(isPostgres()
+						? """
+						INSERT INTO student_course_map(course_id, student_id)
+						SELECT :courseId, s.student_id FROM student s WHERE s.student_id IN (:studentIds)
+						ON CONFLICT (course_id, student_id) DO NOTHING
+						"""
+						: """
+						MERGE INTO student_course_map m
+						USING (SELECT CAST(:courseId AS bigint) AS course_id, s.student_id FROM student s WHERE s.student_id IN (:studentIds)) v
+						ON m.course_id = v.course_id AND m.student_id = v.student_id
+						WHEN NOT MATCHED THEN INSERT (course_id, student_id) VALUES (v.course_id, v.student_id)
+						""")
+				.unwrap(NativeQuery.class)
+				.addSynchronizedQuerySpace("student_course_map")
+				.setParameter("courseId", courseId)
+				.setParameterList("studentIds", studentIds)
+				.executeUpdate();
+		entityManager.clear();
+		return inserted;
+	}
+
+	private boolean isPostgres() {
+		return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+				.getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+	}
+
+	private TypedQuery<Course> withFetchPlan(TypedQuery<Course> query, CourseFetchPlan fetchPlan) {
+		return query.setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(fetchPlan.entityGraph()));
+	}
+}
@@ -1,7 +1,10 @@
 package com.example.repository;
 
 import com.example.model.Student;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,6 +20,8 @@ import java.util.Optional;
 public interface StudentRepository extends JpaRepository<Student, Long> {
 	Optional<List<Student>> findByFirstName(String name);
 	Optional<List<Student>> findByFirstNameContaining(String name);
+	//LIKE '%x%' on both names, what SearchIndexService.searchStudents answers from the trigram index
+	List<Student> findByFirstNameContainingOrLastNameContaining(String firstName, String lastName, Limit limit);
 	Optional<List<Student>> findByLastNameNotNull();
 	List<Student> findByGuardianName(String name);
 
@@ -46,9 +51,16 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
 	@Modifying
 	@Transactional
 	@Query(
-			value = "update student set first_name = ?1 where email_address = ?2",
+			value = "update student set first_name = ?1, version = version + 1 where email_address = ?2",
 			nativeQuery = true
 	)
 	int updateStudentNameByEmailId(String firstName, String emailId);
 
+	//SELECT ... FOR UPDATE: concurrent writers of the same student queue on the row lock instead of failing on the version
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select s from Student s where s.emailId = ?1")
+	Optional<Student> findByEmailIdForUpdate(String emailId);
+
+	Optional<Student> findByEmailId(String emailId);
+
 }
@@ -0,0 +1,56 @@
+package com.example.search;
+
+import com.example.model.Course;
+import com.example.model.Student;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+//Entity listener on Student and Course, applies the change to the search index once the transaction commits
+public class SearchIndexListener {
+
+	private final ObjectProvider<SearchIndexService> searchIndexService;
+
+	public SearchIndexListener(ObjectProvider<SearchIndexService> searchIndexService) {
+		this.searchIndexService = searchIndexService;
+	}
+
+	@PostPersist
+	@PostUpdate
+	void onSave(Object entity) {
+		afterCommit(() -> searchIndexService.ifAvailable(index -> {
+			if (entity instanceof Student student) {
+				index.index(student);
+			} else if (entity instanceof Course course) {
+				index.index(course);
+			}
+		}));
+	}
+
+	@PostRemove
+	void onRemove(Object entity) {
+		afterCommit(() -> searchIndexService.ifAvailable(index -> {
+			if (entity instanceof Student student) {
+				index.removeStudent(student.getStudentId());
+			} else if (entity instanceof Course course) {
+				index.removeCourse(course.getCourseId());
+			}
+		}));
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+}
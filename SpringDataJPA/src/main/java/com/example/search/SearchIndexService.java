@@ -0,0 +1,99 @@
+package com.example.search;
+
+import com.example.model.Course;
+import com.example.model.Student;
+import com.example.repository.CourseRepository;
+import com.example.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Substring search over Student first/last name and Course title backed by {@link TrigramIndex}.
+ * Rebuilt from the tables at startup, then kept current by {@link SearchIndexListener} on every JPA write.
+ */
+@Service
+public class SearchIndexService {
+
+	private final TrigramIndex students = new TrigramIndex();
+	private final TrigramIndex courses = new TrigramIndex();
+
+	private final EntityManager entityManager;
+	private final StudentRepository studentRepository;
+	private final CourseRepository courseRepository;
+
+	public SearchIndexService(EntityManager entityManager, StudentRepository studentRepository, CourseRepository courseRepository) {
+		this.entityManager = entityManager;
+		this.studentRepository = studentRepository;
+		this.courseRepository = courseRepository;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(readOnly = true)
+	public void rebuild() {
+		students.clear();
+		courses.clear();
+		try (Stream<Object[]> rows = entityManager.createQuery(
+				"select s.studentId, s.firstName, s.lastName from Student s", Object[].class).getResultStream()) {
+			rows.forEach(row -> students.put((Long) row[0], studentText((String) row[1], (String) row[2])));
+		}
+		try (Stream<Object[]> rows = entityManager.createQuery(
+				"select c.courseId, c.title from Course c", Object[].class).getResultStream()) {
+			rows.forEach(row -> courses.put((Long) row[0], (String) row[1]));
+		}
+	}
+
+	public List<Long> searchStudentIds(String query, int limit) {
+		return students.search(query, limit);
+	}
+
+	public List<Long> searchCourseIds(String query, int limit) {
+		return courses.search(query, limit);
+	}
+
+	//ranked like searchStudentIds
+	public List<Student> searchStudents(String query, int limit) {
+		List<Long> ids = searchStudentIds(query, limit);
+		return inRankOrder(ids, studentRepository.findAllById(ids), Student::getStudentId);
+	}
+
+	public List<Course> searchCourses(String query, int limit) {
+		List<Long> ids = searchCourseIds(query, limit);
+		return inRankOrder(ids, courseRepository.findAllById(ids), Course::getCourseId);
+	}
+
+	public void index(Student student) {
+		students.put(student.getStudentId(), studentText(student.getFirstName(), student.getLastName()));
+	}
+
+	public void index(Course course) {
+		courses.put(course.getCourseId(), course.getTitle());
+	}
+
+	public void removeStudent(Long studentId) {
+		students.remove(studentId);
+	}
+
+	public void removeCourse(Long courseId) {
+		courses.remove(courseId);
+	}
+
+	private static String studentText(String firstName, String lastName) {
+		return (firstName == null ? "" : firstName) + " " + (lastName == null ? "" : lastName);
+	}
+
+	private static <T> List<T> inRankOrder(List<Long> ids, List<T> entities, Function<T, Long> id) {
+		Map<Long, T> byId = new HashMap<>();
+		entities.forEach(entity -> byId.put(id.apply(entity), entity));
+		return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+	}
+}
@@ -0,0 +1,143 @@
+package com.example.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram inverted index for case-insensitive substring search.
+ * A query is answered by intersecting the posting lists of its trigrams (smallest first)
+ * and verifying the candidates, instead of scanning every row like LIKE '%x%'.
+ */
+public class TrigramIndex {
+
+	private final Map<Long, String> documents = new HashMap<>();
+	private final Map<Long, Set<Long>> postings = new HashMap<>();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	public void put(long id, String text) {
+		String normalized = normalize(text);
+		lock.writeLock().lock();
+		try {
+			String previous = documents.put(id, normalized);
+			if (previous != null) {
+				unindex(id, previous);
+			}
+			for (long trigram : trigrams(normalized)) {
+				postings.computeIfAbsent(trigram, key -> new HashSet<>()).add(id);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(long id) {
+		lock.writeLock().lock();
+		try {
+			String previous = documents.remove(id);
+			if (previous != null) {
+				unindex(id, previous);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void clear() {
+		lock.writeLock().lock();
+		try {
+			documents.clear();
+			postings.clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return documents.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Ids whose text contains the query, best first: prefix matches, then earlier matches, then shorter texts.
+	 */
+	public List<Long> search(String query, int limit) {
+		String needle = normalize(query);
+		if (needle.isEmpty()) {
+			return List.of();
+		}
+		lock.readLock().lock();
+		try {
+			List<Long> matches = new ArrayList<>();
+			for (Long id : candidates(needle)) {
+				if (documents.get(id).contains(needle)) {
+					matches.add(id);
+				}
+			}
+			matches.sort(Comparator.<Long>comparingInt(id -> documents.get(id).indexOf(needle))
+					.thenComparingInt(id -> documents.get(id).length())
+					.thenComparing(Comparator.naturalOrder()));
+			return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	//under the read lock
+	private Iterable<Long> candidates(String needle) {
+		if (needle.length() < 3) {
+			//too short for a trigram, scan the in-memory texts
+			return documents.keySet();
+		}
+		List<Set<Long>> lists = new ArrayList<>();
+		for (long trigram : trigrams(needle)) {
+			Set<Long> posting = postings.get(trigram);
+			if (posting == null) {
+				return List.of();
+			}
+			lists.add(posting);
+		}
+		lists.sort(Comparator.comparingInt(Set::size));
+		Set<Long> result = new HashSet<>(lists.get(0));
+		for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+			result.retainAll(lists.get(i));
+		}
+		return result;
+	}
+
+	private void unindex(long id, String text) {
+		for (long trigram : trigrams(text)) {
+			Set<Long> posting = postings.get(trigram);
+			if (posting != null) {
+				posting.remove(id);
+				if (posting.isEmpty()) {
+					postings.remove(trigram);
+				}
+			}
+		}
+	}
+
+	//three UTF-16 chars packed into one long
+	static Set<Long> trigrams(String text) {
+		Set<Long> trigrams = new HashSet<>();
+		for (int i = 0; i + 3 <= text.length(); i++) {
+			trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+		}
+		return trigrams;
+	}
+
+	static String normalize(String text) {
+		return text == null ? "" : text.toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,149 @@
+package com.example.service;
+
+import com.example.model.Course;
+import com.example.repository.CourseRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset pagination over the course catalog on (title, courseId) or (credit, courseId).
+ * Each page carries an opaque continuation token, deep pages cost the same as the first one
+ * and no count query is issued. The token is the Base64 of typed fields (order, filter, key, courseId),
+ * a missing key has its own marker. Courses with a null title/credit are not reachable through the keyset.
+ */
+@Service
+public class CourseCatalogService {
+
+	public enum CourseOrder {
+		TITLE("title"), CREDIT("credit");
+
+		private final String property;
+
+		CourseOrder(String property) {
+			this.property = property;
+		}
+	}
+
+	//nextToken is null on the last page
+	public record CourseSlice(List<Course> content, String nextToken) {
+
+		public boolean hasNext() {
+			return nextToken != null;
+		}
+	}
+
+	private final CourseRepository courseRepository;
+	//keyed by client filters, so bounded in size as well as in time
+	private final Cache<String, Long> counts;
+
+	public CourseCatalogService(CourseRepository courseRepository,
+								@Value("${catalog.count-cache-ttl:PT30S}") Duration countTtl,
+								@Value("${catalog.count-cache-size:1000}") long countCacheSize) {
+		this.courseRepository = courseRepository;
+		this.counts = Caffeine.newBuilder()
+				.expireAfterWrite(countTtl)
+				.maximumSize(countCacheSize)
+				.build();
+	}
+
+	public CourseSlice firstPage(String title, CourseOrder order, int size) {
+		return page(title, order, ScrollPosition.keyset(), size);
+	}
+
+	public CourseSlice nextPage(String token, int size) {
+		ContinuationToken continuation = ContinuationToken.decode(token);
+		if (continuation.key() == null) {
+			//the keyset queries skip courses without a title/credit, so no page of ours ends on one
+			throw new IllegalArgumentException("Invalid continuation token");
+		}
+		Map<String, Object> keys = new LinkedHashMap<>();
+		keys.put(continuation.order().property, continuation.key());
+		keys.put("courseId", continuation.courseId());
+		return page(continuation.filter(), continuation.order(), ScrollPosition.forward(keys), size);
+	}
+
+	/**
+	 * Total for UIs that show "x of N". Served from memory for catalog.count-cache-ttl,
+	 * so it can lag behind recent inserts.
+	 */
+	public long approximateTotal(String title) {
+		String filter = title == null ? "" : title;
+		return counts.get(filter, courseRepository::countByTitleContaining);
+	}
+
+	private CourseSlice page(String title, CourseOrder order, KeysetScrollPosition position, int size) {
+		String filter = title == null ? "" : title;
+		Window<Course> window = switch (order) {
+			case TITLE -> courseRepository.findByTitleContainingOrderByTitleAscCourseIdAsc(filter, position, Limit.of(size));
+			case CREDIT -> courseRepository.findByTitleContainingAndCreditNotNullOrderByCreditAscCourseIdAsc(filter, position, Limit.of(size));
+		};
+
+		String nextToken = null;
+		if (window.hasNext() && !window.isEmpty()) {
+			Course last = window.getContent().get(window.size() - 1);
+			Object key = order == CourseOrder.CREDIT ? last.getCredit() : last.getTitle();
+			nextToken = new ContinuationToken(order, filter, key, last.getCourseId()).encode();
+		}
+		return new CourseSlice(window.getContent(), nextToken);
+	}
+
+	//key is an Integer for CREDIT, a String for TITLE, null when the last course had none
+	private record ContinuationToken(CourseOrder order, String filter, Object key, long courseId) {
+
+		String encode() {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (DataOutputStream out = new DataOutputStream(bytes)) {
+				out.writeUTF(order.name());
+				out.writeUTF(filter);
+				out.writeBoolean(key != null);
+				if (key instanceof Integer credit) {
+					out.writeInt(credit);
+				} else if (key instanceof String title) {
+					out.writeUTF(title);
+				}
+				out.writeLong(courseId);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+		}
+
+		static ContinuationToken decode(String token) {
+			try {
+				ByteArrayInputStream bytes = new ByteArrayInputStream(Base64.getUrlDecoder().decode(token));
+				DataInputStream in = new DataInputStream(bytes);
+				CourseOrder order = CourseOrder.valueOf(in.readUTF());
+				String filter = in.readUTF();
+				Object key = null;
+				if (in.readBoolean()) {
+					key = order == CourseOrder.CREDIT ? (Object) in.readInt() : in.readUTF();
+				}
+				long courseId = in.readLong();
+				if (bytes.available() != 0) {
+					throw new IllegalArgumentException("Invalid continuation token");
+				}
+				return new ContinuationToken(order, filter, key, courseId);
+			} catch (IOException | IllegalArgumentException e) {
+				throw new IllegalArgumentException("Invalid continuation token", e);
+			}
+		}
+	}
+}
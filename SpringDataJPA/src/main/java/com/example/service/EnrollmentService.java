@@ -0,0 +1,54 @@
+package com.example.service;
+
+import com.example.repository.CourseRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Set-semantics enrollment working on ids: enrolling inserts only the join rows that are missing,
+ * unenrolling deletes only the ones present, whatever the size of the roster.
+ * Unknown student ids are ignored. Returns the number of join rows written.
+ */
+@Service
+public class EnrollmentService {
+
+	private final CourseRepository courseRepository;
+	private final int idsPerStatement;
+
+	//idsPerStatement keeps the IN lists (and bind parameters) of one statement bounded
+	public EnrollmentService(CourseRepository courseRepository,
+							 @Value("${enrollment.ids-per-statement:1000}") int idsPerStatement) {
+		this.courseRepository = courseRepository;
+		this.idsPerStatement = idsPerStatement;
+	}
+
+	@Transactional
+	public int enroll(Long courseId, Collection<Long> studentIds) {
+		return apply(courseId, studentIds, courseRepository::enrollStudents);
+	}
+
+	@Transactional
+	public int unenroll(Long courseId, Collection<Long> studentIds) {
+		return apply(courseId, studentIds, courseRepository::unenrollStudents);
+	}
+
+	private int apply(Long courseId, Collection<Long> studentIds, BiFunction<Long, Collection<Long>, Integer> statement) {
+		if (!courseRepository.existsById(courseId)) {
+			throw new EntityNotFoundException("No course " + courseId);
+		}
+		List<Long> ids = new ArrayList<>(new LinkedHashSet<>(studentIds));
+		int changed = 0;
+		for (int from = 0; from < ids.size(); from += idsPerStatement) {
+			changed += statement.apply(courseId, ids.subList(from, Math.min(ids.size(), from + idsPerStatement)));
+		}
+		return changed;
+	}
+}
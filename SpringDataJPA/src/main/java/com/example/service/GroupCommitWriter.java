@@ -0,0 +1,199 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for single-entity saves: concurrent {@link #save} calls are collected for at most
+ * app.group-commit.max-delay or app.group-commit.max-batch entities and written in one transaction
+ * (one commit, JDBC-batched inserts). Each caller's future completes with the entity's id.
+ * When a group fails, its entities are written again one transaction each, so only the offending one fails.
+ */
+@Service
+@ConditionalOnProperty(name = "app.group-commit.enabled", havingValue = "true")
+public class GroupCommitWriter implements DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(GroupCommitWriter.class);
+
+	private record Pending(Object entity, boolean isNew, CompletableFuture<Object> id) {
+	}
+
+	private final EntityManager entityManager;
+	private final PersistenceUnitUtil persistenceUnitUtil;
+	private final TransactionTemplate transactionTemplate;
+	private final int maxBatch;
+	private final long maxDelayNanos;
+	private final BlockingQueue<Pending> queue;
+	private final Thread flusher;
+	private final Counter commits;
+	private final DistributionSummary groupSize;
+	private volatile boolean running = true;
+
+	public GroupCommitWriter(EntityManager entityManager,
+							 PlatformTransactionManager transactionManager,
+							 ObjectProvider<MeterRegistry> meterRegistry,
+							 @Value("${app.group-commit.max-batch:50}") int maxBatch,
+							 @Value("${app.group-commit.max-delay:5ms}") Duration maxDelay,
+							 @Value("${app.group-commit.queue-capacity:10000}") int queueCapacity) {
+		this.entityManager = entityManager;
+		this.persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.maxBatch = maxBatch;
+		this.maxDelayNanos = maxDelay.toNanos();
+		this.queue = new LinkedBlockingQueue<>(queueCapacity);
+		MeterRegistry registry = meterRegistry.getIfAvailable();
+		this.commits = registry == null ? null : registry.counter("groupcommit.commits");
+		this.groupSize = registry == null ? null : DistributionSummary.builder("groupcommit.group.size").register(registry);
+		this.flusher = Thread.ofPlatform().name("group-commit").daemon().start(this::flushLoop);
+	}
+
+	//entities without an id are persisted, the others merged; completes with the (generated) id
+	public CompletableFuture<Object> save(Object entity) {
+		CompletableFuture<Object> id = new CompletableFuture<>();
+		if (!running) {
+			id.completeExceptionally(new RejectedExecutionException("group commit writer is shut down"));
+			return id;
+		}
+		Pending pending = new Pending(entity, persistenceUnitUtil.getIdentifier(entity) == null, id);
+		if (!queue.offer(pending)) {
+			//a full queue means the database is behind; failing fast keeps the latency of accepted saves bounded
+			id.completeExceptionally(new RejectedExecutionException("group commit queue is full"));
+		} else if (!running && queue.remove(pending)) {
+			//shut down between the check and the offer, destroy() may already have drained the queue.
+			//Whoever takes it off the queue (flusher, destroy or this remove) completes it
+			id.completeExceptionally(new RejectedExecutionException("group commit writer is shut down"));
+		}
+		return id;
+	}
+
+	private void flushLoop() {
+		List<Pending> group = new ArrayList<>(maxBatch);
+		while (running || !queue.isEmpty()) {
+			try {
+				Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				//the window opens with the first save, later ones only fill it up
+				group.add(first);
+				long deadline = System.nanoTime() + maxDelayNanos;
+				while (group.size() < maxBatch) {
+					long remaining = deadline - System.nanoTime();
+					Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+					if (next == null) {
+						break;
+					}
+					group.add(next);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				running = false;
+			}
+			if (!group.isEmpty()) {
+				try {
+					write(group);
+				} catch (Throwable e) {
+					//this thread is the only writer, it has to survive; the group's callers get the failure
+					log.error("Group commit of {} entities failed", group.size(), e);
+					group.forEach(pending -> pending.id().completeExceptionally(e));
+				} finally {
+					group.clear();
+				}
+			}
+		}
+	}
+
+	private void write(List<Pending> group) {
+		List<Object> ids;
+		try {
+			ids = transactionTemplate.execute(status -> group.stream().map(this::store).toList());
+		} catch (RuntimeException e) {
+			if (group.size() == 1) {
+				group.getFirst().id().completeExceptionally(e);
+				return;
+			}
+			log.debug("Group of {} failed, writing its entities one by one", group.size(), e);
+			group.forEach(this::writeAlone);
+			return;
+		}
+		recordCommit(group.size());
+		for (int i = 0; i < group.size(); i++) {
+			group.get(i).id().complete(ids.get(i));
+		}
+	}
+
+	private void writeAlone(Pending pending) {
+		try {
+			Object id = transactionTemplate.execute(status -> {
+				resetGenerated(pending);
+				return store(pending);
+			});
+			recordCommit(1);
+			pending.id().complete(id);
+		} catch (Throwable e) {
+			pending.id().completeExceptionally(e);
+		}
+	}
+
+	private Object store(Pending pending) {
+		if (pending.isNew()) {
+			entityManager.persist(pending.entity());
+			return persistenceUnitUtil.getIdentifier(pending.entity());
+		}
+		return persistenceUnitUtil.getIdentifier(entityManager.merge(pending.entity()));
+	}
+
+	//the rolled back group already handed out ids and versions to its new entities, persist needs them unset again
+	private void resetGenerated(Pending pending) {
+		if (!pending.isNew()) {
+			return;
+		}
+		//through the persister, so property-access entities go through their setters too
+		SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+		EntityPersister persister = session.getEntityPersister(null, pending.entity());
+		persister.setIdentifier(pending.entity(), null, session);
+		if (persister.isVersioned()) {
+			persister.setValue(pending.entity(), persister.getVersionPropertyIndex(), null);
+		}
+	}
+
+	private void recordCommit(int entities) {
+		if (commits != null) {
+			commits.increment();
+			groupSize.record(entities);
+		}
+	}
+
+	//accepted saves are still written before the context goes away
+	@Override
+	public void destroy() throws InterruptedException {
+		running = false;
+		flusher.join(Duration.ofSeconds(10));
+		for (Pending late; (late = queue.poll()) != null; ) {
+			late.id().completeExceptionally(new RejectedExecutionException("group commit writer is shut down"));
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package com.example.service;
+
+import com.example.model.Student;
+import com.example.search.SearchIndexService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Batch version of StudentRepository.updateStudentNameByEmailId: many (emailId, firstName) pairs, one set-based
+ * statement per chunk. On PostgreSQL that is an UPDATE ... FROM (VALUES ...) whose result says what happened to every
+ * key, elsewhere a lookup plus a JDBC batch. Students already loaded in the persistence context are refreshed and the
+ * search index is updated after commit.
+ */
+@Service
+public class StudentNameBatchUpdater {
+
+	public record NameChange(String emailId, String firstName) {
+	}
+
+	public enum Outcome {
+		UPDATED,
+		//the student already had that name, nothing written
+		UNCHANGED,
+		NOT_FOUND
+	}
+
+	public record NameChangeResult(String emailId, Long studentId, Outcome outcome) {
+	}
+
+	private record Row(String emailId, Long studentId, String lastName, boolean updated) {
+	}
+
+	private final EntityManager entityManager;
+	private final JdbcTemplate jdbcTemplate;
+	private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+	private final ObjectProvider<SearchIndexService> searchIndexService;
+	private final int chunkSize;
+	private volatile Boolean postgres;
+
+	public StudentNameBatchUpdater(EntityManager entityManager,
+								   JdbcTemplate jdbcTemplate,
+								   ObjectProvider<SearchIndexService> searchIndexService,
+								   @Value("${students.name-update.chunk-size:500}") int chunkSize) {
+		this.entityManager = entityManager;
+		this.jdbcTemplate = jdbcTemplate;
+		this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+		this.searchIndexService = searchIndexService;
+		this.chunkSize = chunkSize;
+	}
+
+	//results in input order, one per distinct emailId (the last change for an emailId wins)
+	@Transactional
+	public List<NameChangeResult> updateFirstNames(Collection<NameChange> changes) {
+		Map<String, String> firstNames = new LinkedHashMap<>();
+		for (NameChange change : changes) {
+			firstNames.put(Objects.requireNonNull(change.emailId(), "emailId"), change.firstName());
+		}
+		//pending entity changes first, the statements below bypass the persistence context
+		entityManager.flush();
+
+		List<String> emails = new ArrayList<>(firstNames.keySet());
+		Map<String, Row> rows = new HashMap<>();
+		for (int from = 0; from < emails.size(); from += chunkSize) {
+			Map<String, String> chunk = new LinkedHashMap<>();
+			emails.subList(from, Math.min(emails.size(), from + chunkSize)).forEach(email -> chunk.put(email, firstNames.get(email)));
+			List<Row> chunkRows = isPostgres() ? updateWithValues(chunk) : updateWithBatch(chunk);
+			chunkRows.forEach(row -> rows.put(row.emailId(), row));
+		}
+
+		List<Row> updated = rows.values().stream().filter(Row::updated).toList();
+		refreshManagedStudents(updated);
+		reindexAfterCommit(updated, firstNames);
+
+		return emails.stream().map(email -> {
+			Row row = rows.get(email);
+			if (row == null) {
+				return new NameChangeResult(email, null, Outcome.NOT_FOUND);
+			}
+			return new NameChangeResult(email, row.studentId(), row.updated() ? Outcome.UPDATED : Outcome.UNCHANGED);
+		}).toList();
+	}
+
+	//one round trip: the UPDATE runs in a CTE, the outer select reports every key of the chunk
+	private List<Row> updateWithValues(Map<String, String> chunk) {
+		String values = String.join(", ", Collections.nCopies(chunk.size(), "(CAST(? AS varchar), CAST(? AS varchar))"));
+		List<Object> args = new ArrayList<>(chunk.size() * 2);
+		chunk.forEach((email, firstName) -> {
+			args.add(email);
+			args.add(firstName);
+		});
+		return jdbcTemplate.query("""
+						WITH changes(email_address, first_name) AS (VALUES %s),
+						updated AS (
+							UPDATE student s SET first_name = c.first_name, version = s.version + 1
+							FROM changes c
+							WHERE s.email_address = c.email_address AND s.first_name IS DISTINCT FROM c.first_name
+							RETURNING s.student_id
+						)
+						SELECT s.email_address, s.student_id, s.last_name, u.student_id IS NOT NULL AS updated
+						FROM changes c
+						JOIN student s ON s.email_address = c.email_address
+						LEFT JOIN updated u ON u.student_id = s.student_id
+						""".formatted(values),
+				(rs, rowNum) -> new Row(rs.getString(1), rs.getLong(2), rs.getString(3), rs.getBoolean(4)),
+				args.toArray());
+	}
+
+	//two round trips: which keys exist, then a JDBC batch whose update counts tell updated from unchanged
+	private List<Row> updateWithBatch(Map<String, String> chunk) {
+		List<Row> existing = namedParameterJdbcTemplate.query(
+				"SELECT email_address, student_id, last_name FROM student WHERE email_address IN (:emails)",
+				Map.of("emails", chunk.keySet()),
+				(rs, rowNum) -> new Row(rs.getString(1), rs.getLong(2), rs.getString(3), false));
+		if (existing.isEmpty()) {
+			return existing;
+		}
+		List<Object[]> args = existing.stream()
+				.map(row -> new Object[]{chunk.get(row.emailId()), row.emailId(), chunk.get(row.emailId())})
+				.toList();
+		int[] counts = jdbcTemplate.batchUpdate(
+				"UPDATE student SET first_name = ?, version = version + 1 WHERE email_address = ? AND first_name IS DISTINCT FROM ?", args);
+		List<Row> rows = new ArrayList<>(existing.size());
+		for (int i = 0; i < existing.size(); i++) {
+			Row row = existing.get(i);
+			//SUCCESS_NO_INFO (-2) from drivers that don't report counts: assume it was written
+			rows.add(new Row(row.emailId(), row.studentId(), row.lastName(), counts[i] != 0));
+		}
+		return rows;
+	}
+
+	//only students this transaction already holds, everything else is read fresh anyway
+	private void refreshManagedStudents(List<Row> updated) {
+		if (updated.isEmpty()) {
+			return;
+		}
+		Map<Long, Row> byId = new HashMap<>();
+		updated.forEach(row -> byId.put(row.studentId(), row));
+		List<Student> managed = new ArrayList<>();
+		SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+		for (Map.Entry<Object, EntityEntry> entry : session.getPersistenceContextInternal().reentrantSafeEntityEntries()) {
+			if (entry.getKey() instanceof Student student && byId.containsKey(student.getStudentId())) {
+				managed.add(student);
+			}
+		}
+		managed.forEach(entityManager::refresh);
+	}
+
+	private void reindexAfterCommit(List<Row> updated, Map<String, String> firstNames) {
+		if (updated.isEmpty()) {
+			return;
+		}
+		List<Student> students = updated.stream()
+				.map(row -> Student.builder()
+						.studentId(row.studentId())
+						.firstName(firstNames.get(row.emailId()))
+						.lastName(row.lastName())
+						.emailId(row.emailId())
+						.build())
+				.toList();
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				searchIndexService.ifAvailable(index -> students.forEach(index::index));
+			}
+		});
+	}
+
+	private boolean isPostgres() {
+		Boolean result = postgres;
+		if (result == null) {
+			result = "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+					connection.getMetaData().getDatabaseProductName()));
+			postgres = result;
+		}
+		return result;
+	}
+}
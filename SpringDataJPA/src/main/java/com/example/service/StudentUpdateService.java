@@ -0,0 +1,85 @@
+package com.example.service;
+
+import com.example.model.Student;
+import com.example.repository.StudentRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Read-modify-write of one student in two flavours:
+ * {@link #update} relies on Student.version and retries the whole transaction when another writer committed first,
+ * {@link #updateLocked} takes the row lock up front, so writers of the same student wait instead of retrying.
+ * Optimistic is cheaper while conflicts are rare; under heavy contention on a few rows the lock wins.
+ */
+@Service
+public class StudentUpdateService {
+
+	//attempts - 1 version conflicts were retried
+	public record UpdateResult(Student student, int attempts) {
+	}
+
+	private final StudentRepository studentRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final int maxAttempts;
+	private final long backoffNanos;
+	private final long maxBackoffNanos;
+
+	public StudentUpdateService(StudentRepository studentRepository,
+								PlatformTransactionManager transactionManager,
+								@Value("${students.update.max-attempts:5}") int maxAttempts,
+								@Value("${students.update.backoff:10ms}") Duration backoff,
+								@Value("${students.update.max-backoff:200ms}") Duration maxBackoff) {
+		this.studentRepository = studentRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.maxAttempts = maxAttempts;
+		this.backoffNanos = backoff.toNanos();
+		this.maxBackoffNanos = maxBackoff.toNanos();
+	}
+
+	//change runs again on every attempt, against a fresh read, so it must not depend on the previous attempt
+	public UpdateResult update(String emailId, Consumer<Student> change) {
+		for (int attempt = 1; ; attempt++) {
+			try {
+				return new UpdateResult(transactionTemplate.execute(status -> {
+					Student student = studentRepository.findByEmailId(emailId)
+							.orElseThrow(() -> new EntityNotFoundException("No student " + emailId));
+					change.accept(student);
+					return student;
+				}), attempt);
+			} catch (OptimisticLockingFailureException e) {
+				if (attempt >= maxAttempts) {
+					throw e;
+				}
+				backOff(attempt, e);
+			}
+		}
+	}
+
+	public UpdateResult updateLocked(String emailId, Consumer<Student> change) {
+		return new UpdateResult(transactionTemplate.execute(status -> {
+			Student student = studentRepository.findByEmailIdForUpdate(emailId)
+					.orElseThrow(() -> new EntityNotFoundException("No student " + emailId));
+			change.accept(student);
+			return student;
+		}), 1);
+	}
+
+	//exponential with full jitter, so writers that collided don't collide again on the retry
+	private void backOff(int attempt, OptimisticLockingFailureException conflict) {
+		long ceiling = Math.min(maxBackoffNanos, backoffNanos << Math.min(attempt - 1, 20));
+		try {
+			Thread.sleep(Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceiling + 1)));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw conflict;
+		}
+	}
+}
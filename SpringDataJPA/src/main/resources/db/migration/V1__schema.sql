@@ -0,0 +1,41 @@
+-- Baseline schema, matches the entities in com.example.model (validated with ddl-auto=validate in prod).
+-- Sequence increments are the allocationSize of each @SequenceGenerator (pooled-lo).
+
+CREATE SEQUENCE teacher_seq START WITH 1 INCREMENT BY 20;
+CREATE SEQUENCE course_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE course_material_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE student_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE teacher (
+	teacher_id bigint PRIMARY KEY,
+	first_name varchar(255),
+	last_name varchar(255)
+);
+
+CREATE TABLE course (
+	course_id bigint PRIMARY KEY,
+	title varchar(255),
+	credit integer,
+	teacher_id bigint REFERENCES teacher(teacher_id)
+);
+
+CREATE TABLE course_material (
+	course_material_id bigint PRIMARY KEY,
+	url varchar(255),
+	course_id bigint UNIQUE REFERENCES course(course_id)
+);
+
+CREATE TABLE student (
+	student_id bigint PRIMARY KEY,
+	first_name varchar(255),
+	last_name varchar(255),
+	email_address varchar(255) NOT NULL UNIQUE,
+	guardian_name varchar(255),
+	guardian_email varchar(255),
+	guardian_mobile varchar(255)
+);
+
+CREATE TABLE student_course_map (
+	course_id bigint NOT NULL REFERENCES course(course_id),
+	student_id bigint NOT NULL REFERENCES student(student_id)
+);
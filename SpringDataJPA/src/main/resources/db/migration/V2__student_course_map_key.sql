@@ -0,0 +1,12 @@
+-- Course.studentList is a Set: one row per (course, student), and the pair is the key.
+
+DELETE FROM student_course_map a
+USING student_course_map b
+WHERE a.ctid < b.ctid
+AND a.course_id = b.course_id
+AND a.student_id = b.student_id;
+
+ALTER TABLE student_course_map ADD PRIMARY KEY (course_id, student_id);
+
+-- courses of a student
+CREATE INDEX student_course_map_student ON student_course_map(student_id);
@@ -0,0 +1,91 @@
+package com.example.benchmark;
+
+import com.example.SpringDataJpaApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load test of the REST API: the same request mix against virtual-thread and platform-thread request handling.
+ * Prints throughput, p99 latency and rejected (503) requests for each.
+ * mvn -Pbenchmark test -Dbenchmark.include=ApiLoadBenchmark
+ */
+public class ApiLoadBenchmark {
+
+	static final int CONCURRENCY = 2_000;
+	static final int REQUESTS = 50_000;
+	static final int STUDENTS = 1_000;
+
+	public static void main(String[] args) throws Exception {
+		run("virtual threads", "spring.threads.virtual.enabled=true");
+		run("platform threads", "spring.threads.virtual.enabled=false", "server.tomcat.threads.max=200");
+	}
+
+	private static void run(String label, String... properties) throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringDataJpaApplication.class)
+				.properties(
+						"spring.datasource.url=jdbc:h2:mem:api" + label.charAt(0) + ";DB_CLOSE_DELAY=-1",
+						"spring.datasource.username=sa",
+						"spring.datasource.password=",
+						"spring.jpa.show-sql=false",
+						"server.port=0",
+						"spring.main.banner-mode=off",
+						"logging.level.root=warn")
+				.properties(properties)
+				.run()) {
+
+			String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+			HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+			for (int i = 0; i < STUDENTS; i++) {
+				client.send(HttpRequest.newBuilder(URI.create(base + "/api/students"))
+						.header("Content-Type", "application/json")
+						.POST(HttpRequest.BodyPublishers.ofString(
+								"{\"firstName\":\"name%d\",\"lastName\":\"last%d\",\"emailId\":\"load%d@example.com\"}".formatted(i, i, i)))
+						.build(), HttpResponse.BodyHandlers.discarding());
+			}
+
+			long[] latencies = new long[REQUESTS];
+			int[] statuses = new int[REQUESTS];
+			long start = System.nanoTime();
+			try (ExecutorService callers = Executors.newFixedThreadPool(CONCURRENCY, Thread.ofVirtual().factory())) {
+				List<Future<?>> futures = new ArrayList<>(REQUESTS);
+				for (int i = 0; i < REQUESTS; i++) {
+					int request = i;
+					String path = request % 2 == 0
+							? "/api/students/by-email/load" + (request % STUDENTS) + "@example.com"
+							: "/api/courses?size=20";
+					futures.add(callers.submit(() -> {
+						long sent = System.nanoTime();
+						HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(base + path)).build(),
+								HttpResponse.BodyHandlers.discarding());
+						latencies[request] = System.nanoTime() - sent;
+						statuses[request] = response.statusCode();
+						return null;
+					}));
+				}
+				for (Future<?> future : futures) {
+					future.get();
+				}
+			}
+			double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+			Arrays.sort(latencies);
+			long rejected = Arrays.stream(statuses).filter(status -> status == 503).count();
+			System.out.printf("%s: %.0f req/s, p50 %.1f ms, p99 %.1f ms, %d rejected by the bulkhead%n",
+					label, REQUESTS / seconds,
+					latencies[REQUESTS / 2] / 1_000_000.0,
+					latencies[(int) (REQUESTS * 0.99)] / 1_000_000.0,
+					rejected);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.example.benchmark;
+
+import com.example.model.Course;
+import com.example.repository.CourseRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CourseRepositoryBenchmark {
+
+	static final int PAGE_SIZE = 20;
+
+	@Param({"1000", "100000"})
+	public int rows;
+
+	ConfigurableApplicationContext context;
+	CourseRepository courseRepository;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkApplication.start("courses" + rows);
+		courseRepository = context.getBean(CourseRepository.class);
+		TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+		for (int from = 0; from < rows; from += 1000) {
+			List<Course> chunk = new ArrayList<>(1000);
+			for (int i = from; i < Math.min(rows, from + 1000); i++) {
+				chunk.add(Course.builder().title("course" + i).credit(i % 30).build());
+			}
+			transactionTemplate.executeWithoutResult(status -> courseRepository.saveAll(chunk));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Page<Course> findByTitleContainingFirstPage() {
+		return courseRepository.findByTitleContaining("course", PageRequest.of(0, PAGE_SIZE, Sort.by("title")));
+	}
+
+	@Benchmark
+	public Page<Course> findByTitleContainingRandomPage() {
+		int page = ThreadLocalRandom.current().nextInt(rows / PAGE_SIZE);
+		return courseRepository.findByTitleContaining("course", PageRequest.of(page, PAGE_SIZE, Sort.by("title")));
+	}
+}
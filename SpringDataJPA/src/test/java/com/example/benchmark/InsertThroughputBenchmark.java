@@ -0,0 +1,95 @@
+package com.example.benchmark;
+
+import com.example.model.Course;
+import com.example.model.CourseMaterial;
+import com.example.model.Teacher;
+import com.example.repository.CourseMaterialRepository;
+import com.example.repository.CourseRepository;
+import com.example.repository.TeacherRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput of CourseRepository.saveAll and of the CourseMaterialRepository.save cascade (material, course and
+ * teacher per save). One operation inserts `rows` materials/courses in one transaction, so rows/sec = ops/sec * rows.
+ * settings=unbatched is the old behaviour: one nextval per id (no optimizer, like allocationSize=1) and no JDBC batching.
+ * settings=batched runs with application.properties: pooled-lo ids, batch_size and ordered inserts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class InsertThroughputBenchmark {
+
+	@Param({"unbatched", "batched"})
+	public String settings;
+
+	@Param({"1000"})
+	public int rows;
+
+	ConfigurableApplicationContext context;
+	CourseRepository courseRepository;
+	CourseMaterialRepository courseMaterialRepository;
+	TeacherRepository teacherRepository;
+	TransactionTemplate transactionTemplate;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		String[] properties = settings.equals("unbatched")
+				? new String[]{
+						"spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=none",
+						"spring.jpa.properties.hibernate.jdbc.batch_size=0",
+						"spring.jpa.properties.hibernate.order_inserts=false"}
+				: new String[0];
+		context = BenchmarkApplication.start("inserts-" + settings + rows, properties);
+		courseRepository = context.getBean(CourseRepository.class);
+		courseMaterialRepository = context.getBean(CourseMaterialRepository.class);
+		teacherRepository = context.getBean(TeacherRepository.class);
+		transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+	}
+
+	//keeps the tables at the same size for every iteration
+	@TearDown(Level.Iteration)
+	public void clear() {
+		transactionTemplate.executeWithoutResult(status -> {
+			courseMaterialRepository.deleteAllInBatch();
+			courseRepository.deleteAllInBatch();
+			teacherRepository.deleteAllInBatch();
+		});
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<Course> courseSaveAll() {
+		List<Course> courses = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++) {
+			courses.add(Course.builder().title("course" + i).credit(i % 10).build());
+		}
+		return transactionTemplate.execute(status -> courseRepository.saveAll(courses));
+	}
+
+	@Benchmark
+	public void courseMaterialSaveCascade() {
+		transactionTemplate.executeWithoutResult(status -> {
+			for (int i = 0; i < rows; i++) {
+				courseMaterialRepository.save(CourseMaterial.builder()
+						.url("url" + i)
+						.course(Course.builder()
+								.title("course" + i)
+								.credit(i % 10)
+								.teacher(Teacher.builder().firstName("first" + i).lastName("last" + i).build())
+								.build())
+						.build());
+			}
+		});
+	}
+}
@@ -0,0 +1,109 @@
+package com.example.benchmark;
+
+import com.example.model.Student;
+import com.example.repository.StudentRepository;
+import com.example.service.StudentUpdateService;
+import com.example.service.StudentUpdateService.UpdateResult;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * writers threads update hotRows students at the same time, through StudentUpdateService's optimistic (version + retry)
+ * and pessimistic (SELECT ... FOR UPDATE) paths. One operation is one round in which every writer commits one update,
+ * so ops/sec * writers is the update throughput. The aux counters give the cost of contention:
+ * conflicts (retried version conflicts) and failures (updates that gave up) per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StudentContentionBenchmark {
+
+	@Param({"1", "4", "16", "64"})
+	public int writers;
+
+	@Param({"1", "16"})
+	public int hotRows;
+
+	ConfigurableApplicationContext context;
+	StudentUpdateService studentUpdateService;
+	ExecutorService writerThreads;
+
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class Outcomes {
+		public long updates;
+		public long conflicts;
+		public long failures;
+	}
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkApplication.start("contention" + writers + "x" + hotRows,
+				"spring.datasource.hikari.maximum-pool-size=" + (writers + 1),
+				"students.update.max-attempts=10",
+				"students.update.backoff=1ms",
+				"students.update.max-backoff=50ms");
+		studentUpdateService = context.getBean(StudentUpdateService.class);
+		List<Student> students = new ArrayList<>(hotRows);
+		for (int i = 0; i < hotRows; i++) {
+			students.add(Student.builder().firstName("name" + i).lastName("surname" + i).emailId(email(i)).build());
+		}
+		context.getBean(StudentRepository.class).saveAll(students);
+		writerThreads = Executors.newFixedThreadPool(writers);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		writerThreads.shutdownNow();
+		context.close();
+	}
+
+	@Benchmark
+	public void optimistic(Outcomes outcomes) throws Exception {
+		round(outcomes, studentUpdateService::update);
+	}
+
+	@Benchmark
+	public void pessimistic(Outcomes outcomes) throws Exception {
+		round(outcomes, studentUpdateService::updateLocked);
+	}
+
+	private void round(Outcomes outcomes, BiFunction<String, Consumer<Student>, UpdateResult> update) throws Exception {
+		List<Future<UpdateResult>> results = new ArrayList<>(writers);
+		for (int i = 0; i < writers; i++) {
+			results.add(writerThreads.submit(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				String firstName = "name" + random.nextInt();
+				return update.apply(email(random.nextInt(hotRows)), student -> student.setFirstName(firstName));
+			}));
+		}
+		for (Future<UpdateResult> result : results) {
+			try {
+				UpdateResult updated = result.get();
+				outcomes.updates++;
+				outcomes.conflicts += updated.attempts() - 1;
+			} catch (ExecutionException e) {
+				if (!(e.getCause() instanceof ConcurrencyFailureException)) {
+					throw e;
+				}
+				outcomes.failures++;
+			}
+		}
+	}
+
+	private static String email(int i) {
+		return "hot" + i + "@example.com";
+	}
+}
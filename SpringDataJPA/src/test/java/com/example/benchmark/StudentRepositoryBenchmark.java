@@ -0,0 +1,75 @@
+package com.example.benchmark;
+
+import com.example.model.Student;
+import com.example.model.embeddable.Guardian;
+import com.example.repository.StudentRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StudentRepositoryBenchmark {
+
+	@Param({"1000", "100000"})
+	public int rows;
+
+	ConfigurableApplicationContext context;
+	StudentRepository studentRepository;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkApplication.start("students" + rows);
+		studentRepository = context.getBean(StudentRepository.class);
+		TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+		for (int from = 0; from < rows; from += 1000) {
+			List<Student> chunk = new ArrayList<>(1000);
+			for (int i = from; i < Math.min(rows, from + 1000); i++) {
+				chunk.add(Student.builder()
+						.firstName("name" + i)
+						.lastName("surname" + i)
+						.emailId(email(i))
+						.guardian(new Guardian("guardian" + i, "guardian" + i + "@example.com", "555" + i))
+						.build());
+			}
+			transactionTemplate.executeWithoutResult(status -> studentRepository.saveAll(chunk));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Optional<List<Student>> findByFirstNameContaining() {
+		return studentRepository.findByFirstNameContaining("name" + randomRow());
+	}
+
+	@Benchmark
+	public Student getStudentByEmailAddress() {
+		return studentRepository.getStudentByEmailAddress(email(randomRow()));
+	}
+
+	@Benchmark
+	public Student getStudentByEmailAddressNative() {
+		return studentRepository.getStudentByEmailAddressNative(email(randomRow()));
+	}
+
+	private int randomRow() {
+		return ThreadLocalRandom.current().nextInt(rows);
+	}
+
+	private static String email(int i) {
+		return "student" + i + "@example.com";
+	}
+}
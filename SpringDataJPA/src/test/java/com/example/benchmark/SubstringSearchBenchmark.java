@@ -0,0 +1,75 @@
+package com.example.benchmark;
+
+import com.example.model.Student;
+import com.example.model.embeddable.Guardian;
+import com.example.repository.StudentRepository;
+import com.example.search.SearchIndexService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//LIKE '%x%' table scan vs the trigram index: same query strings, both names, same limit, entities on both sides
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SubstringSearchBenchmark {
+
+	static final int LIMIT = 50;
+
+	@Param({"1000000"})
+	public int rows;
+
+	ConfigurableApplicationContext context;
+	StudentRepository studentRepository;
+	SearchIndexService searchIndexService;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkApplication.start("search" + rows);
+		studentRepository = context.getBean(StudentRepository.class);
+		searchIndexService = context.getBean(SearchIndexService.class);
+		TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+		for (int from = 0; from < rows; from += 5000) {
+			List<Student> chunk = new ArrayList<>(5000);
+			for (int i = from; i < Math.min(rows, from + 5000); i++) {
+				chunk.add(Student.builder()
+						.firstName("name" + i)
+						.lastName("surname" + i)
+						.emailId("student" + i + "@example.com")
+						.guardian(new Guardian("guardian", "guardian@example.com", "555"))
+						.build());
+			}
+			transactionTemplate.executeWithoutResult(status -> studentRepository.saveAll(chunk));
+		}
+		searchIndexService.rebuild();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<Student> likeScan() {
+		String query = query();
+		return studentRepository.findByFirstNameContainingOrLastNameContaining(query, query, Limit.of(LIMIT));
+	}
+
+	@Benchmark
+	public List<Student> trigramIndex() {
+		return searchIndexService.searchStudents(query(), LIMIT);
+	}
+
+	//"me123456"-style fragments that hit a handful of rows
+	private String query() {
+		return "me" + ThreadLocalRandom.current().nextInt(rows);
+	}
+}
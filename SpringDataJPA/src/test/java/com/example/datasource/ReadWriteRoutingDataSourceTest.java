@@ -0,0 +1,110 @@
+package com.example.datasource;
+
+import com.example.datasource.RoutingDataSourceProperties.Pool;
+import com.example.datasource.RoutingDataSourceProperties.Strategy;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//Every embedded database answers SELECT name FROM whoami with its own name
+class ReadWriteRoutingDataSourceTest {
+
+	SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	ReadWriteRoutingDataSource routingDataSource;
+	JdbcTemplate jdbcTemplate;
+	TransactionTemplate readWrite;
+	TransactionTemplate readOnly;
+
+	@AfterEach
+	void tearDown() {
+		routingDataSource.close();
+	}
+
+	@Test
+	void readOnlyTransactionsGoToReplicasAndWritesToPrimary() {
+		start(Duration.ZERO, Strategy.ROUND_ROBIN, "primary", "replica");
+
+		assertThat(readWrite.<String>execute(status -> whoami())).isEqualTo("primary");
+		assertThat(readOnly.<String>execute(status -> whoami())).isEqualTo("replica");
+		assertThat(whoami()).as("outside a transaction").isEqualTo("primary");
+		assertThat(meterRegistry.get("datasource.routing.connections").tag("pool", "replica-0").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void readsStayOnPrimaryWithinReadYourWritesWindow() {
+		start(Duration.ofMinutes(1), Strategy.ROUND_ROBIN, "primary", "replica");
+
+		assertThat(readOnly.<String>execute(status -> whoami())).isEqualTo("replica");
+		readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE whoami SET name = name"));
+		assertThat(readOnly.<String>execute(status -> whoami())).isEqualTo("primary");
+	}
+
+	@Test
+	void readYourWritesWindowStartsAtCommit() {
+		start(Duration.ofMillis(300), Strategy.ROUND_ROBIN, "primary", "replica");
+
+		readWrite.executeWithoutResult(status -> {
+			jdbcTemplate.update("UPDATE whoami SET name = name");
+			sleep(500);
+		});
+		assertThat(readOnly.<String>execute(status -> whoami())).isEqualTo("primary");
+	}
+
+	@Test
+	void roundRobinAlternatesBetweenReplicas() {
+		start(Duration.ZERO, Strategy.ROUND_ROBIN, "primary", "replica1", "replica2");
+
+		List<String> reads = List.of(
+				readOnly.execute(status -> whoami()),
+				readOnly.execute(status -> whoami()),
+				readOnly.execute(status -> whoami()),
+				readOnly.execute(status -> whoami()));
+
+		assertThat(reads).containsExactly("replica1", "replica2", "replica1", "replica2");
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private String whoami() {
+		return jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class);
+	}
+
+	private void start(Duration readYourWritesWindow, Strategy strategy, String primary, String... replicas) {
+		HikariDataSource primaryPool = database(primary, false);
+		List<HikariDataSource> replicaPools = Arrays.stream(replicas).map(name -> database(name, true)).toList();
+		routingDataSource = new ReadWriteRoutingDataSource(primaryPool, replicaPools, strategy, readYourWritesWindow, meterRegistry);
+
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		readWrite = new TransactionTemplate(transactionManager);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+	}
+
+	private HikariDataSource database(String name, boolean replica) {
+		String url = "jdbc:h2:mem:routing_" + name + "_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1";
+		//schema and data go in before the pool is marked read-only
+		new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""))
+				.execute("CREATE TABLE whoami(name varchar(32)); INSERT INTO whoami VALUES ('" + name + "')");
+		return RoutingDataSourceConfig.pool(name, new Pool(url, "sa", "", 2), meterRegistry, replica);
+	}
+}
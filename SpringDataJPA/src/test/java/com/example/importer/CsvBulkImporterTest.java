@@ -0,0 +1,106 @@
+package com.example.importer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//chunk size 2, so every file spans more than one chunk (and transaction)
+@DataJpaTest(properties = "importer.csv.chunk-size=2")
+@Import(CsvBulkImporter.class)
+class CsvBulkImporterTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Autowired
+	CsvBulkImporter importer;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void givenCsvFiles_whenImported_thenAllRowsPersisted() throws Exception {
+		ImportResult teachers = importer.importTeachers(csv("teachers.csv", """
+				first_name,last_name
+				Adam,Grant
+				Edward,Smith
+				Jane,Doe
+				"""));
+		ImportResult students = importer.importStudents(csv("students.csv", """
+				first_name,last_name,email_address,guardian_name,guardian_email,guardian_mobile
+				Anna,Nowak,anna@example.com,Ewa,ewa@example.com,555
+				Piotr,Kowalski,piotr@example.com,,,
+				"""));
+		List<Long> teacherIds = ids("SELECT teacher_id FROM teacher ORDER BY teacher_id");
+		ImportResult courses = importer.importCourses(csv("courses.csv", """
+				title,credit,teacher_id
+				Algebra,5,%d
+				Physics,,%d
+				Poetry,3,
+				""".formatted(teacherIds.get(0), teacherIds.get(1))));
+
+		assertThat(teachers.source()).isEqualTo("teachers.csv");
+		assertThat(teachers.rows()).isEqualTo(3);
+		assertThat(students.rows()).isEqualTo(2);
+		assertThat(courses.rows()).isEqualTo(3);
+		assertThat(count("teacher")).isEqualTo(3);
+		assertThat(count("student")).isEqualTo(2);
+		assertThat(count("course")).isEqualTo(3);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM course WHERE teacher_id IS NULL", Long.class)).isEqualTo(1);
+		assertThat(jdbcTemplate.queryForObject("SELECT guardian_name FROM student WHERE email_address = 'anna@example.com'", String.class))
+				.isEqualTo("Ewa");
+	}
+
+	@Test
+	void givenEnrollments_whenImportedTwice_thenSecondImportAddsNothing() throws Exception {
+		importer.importStudents(csv("students.csv", """
+				first_name,last_name,email_address,guardian_name,guardian_email,guardian_mobile
+				Anna,Nowak,anna@example.com,Ewa,ewa@example.com,555
+				Piotr,Kowalski,piotr@example.com,,,
+				"""));
+		importer.importCourses(csv("courses.csv", """
+				title,credit,teacher_id
+				Algebra,5,
+				Physics,4,
+				"""));
+		List<Long> studentIds = ids("SELECT student_id FROM student ORDER BY student_id");
+		List<Long> courseIds = ids("SELECT course_id FROM course ORDER BY course_id");
+		Path enrollments = csv("student_course_map.csv", """
+				course_id,student_id
+				%d,%d
+				%d,%d
+				%d,%d
+				""".formatted(courseIds.get(0), studentIds.get(0),
+				courseIds.get(0), studentIds.get(1),
+				courseIds.get(1), studentIds.get(0)));
+
+		ImportResult first = importer.importEnrollments(enrollments);
+		ImportResult second = importer.importEnrollments(enrollments);
+
+		assertThat(first.rows()).isEqualTo(3);
+		//rows read from the file, the pairs themselves are skipped
+		assertThat(second.rows()).isEqualTo(3);
+		assertThat(count("student_course_map")).isEqualTo(3);
+	}
+
+	private Path csv(String name, String content) throws Exception {
+		return Files.writeString(tempDir.resolve(name), content);
+	}
+
+	private List<Long> ids(String sql) {
+		return jdbcTemplate.queryForList(sql, Long.class);
+	}
+
+	private long count(String table) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+	}
+}
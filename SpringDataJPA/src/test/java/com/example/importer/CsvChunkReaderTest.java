@@ -0,0 +1,43 @@
+package com.example.importer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvChunkReaderTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void readsFileInFixedSizeChunks() throws Exception {
+		Path file = tempDir.resolve("teachers.csv");
+		Files.writeString(file, """
+				first_name,last_name
+				Adam,Grant
+				Edward,Smith
+
+				"Doe, John","O""Brien"
+				""");
+
+		List<Integer> chunkSizes = new ArrayList<>();
+		List<String[]> rows = new ArrayList<>();
+		try (CsvChunkReader reader = new CsvChunkReader(file, 2)) {
+			assertThat(reader.header()).containsExactly("first_name", "last_name");
+			long count = reader.forEachChunk(chunk -> {
+				chunkSizes.add(chunk.size());
+				rows.addAll(chunk);
+			});
+			assertThat(count).isEqualTo(3);
+		}
+
+		assertThat(chunkSizes).containsExactly(2, 1);
+		assertThat(rows.get(2)).containsExactly("Doe, John", "O\"Brien");
+	}
+}
@@ -0,0 +1,50 @@
+package com.example.repository;
+
+import com.example.cache.CatalogCacheStatistics;
+import com.example.model.Teacher;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("cache")
+@Import(CatalogCacheStatistics.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)  //every repository call commits, like in the application
+class CatalogSecondLevelCacheTest {
+
+	@Autowired
+	TeacherRepository teacherRepository;
+
+	@Autowired
+	CatalogCacheStatistics catalogCacheStatistics;
+
+	@Test
+	@DisplayName("Repeated catalog reads are served from the second-level and query cache")
+	void givenCachedTeachers_whenReadAgain_thenNoSql() {
+		//Given
+		Teacher teacher = teacherRepository.save(Teacher.builder().firstName("first").lastName("last").build());
+		teacherRepository.findAll();
+
+		Statistics statistics = catalogCacheStatistics.statistics();
+		statistics.clear();
+
+		//When
+		for (int i = 0; i < 3; i++) {
+			assertThat(teacherRepository.findById(teacher.getTeacherId())).isPresent();
+			assertThat(teacherRepository.findAll()).extracting(Teacher::getTeacherId).contains(teacher.getTeacherId());
+		}
+
+		//Then
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+		assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+		assertThat(statistics.getQueryCacheHitCount()).isEqualTo(3);
+	}
+}
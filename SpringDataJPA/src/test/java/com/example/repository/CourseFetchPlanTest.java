@@ -0,0 +1,91 @@
+package com.example.repository;
+
+import com.example.model.Course;
+import com.example.model.CourseMaterial;
+import com.example.model.Student;
+import com.example.model.Teacher;
+import com.example.model.embeddable.Guardian;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+
+import java.util.List;
+
+import static com.example.support.SqlStatementCounter.assertStatementBudget;
+import static com.example.support.SqlStatementCounter.count;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.support.SqlStatementCounter")
+class CourseFetchPlanTest {
+
+	static final int COURSES = 5;
+
+	@Autowired
+	CourseRepository courseRepository;
+
+	@Autowired
+	CourseMaterialRepository courseMaterialRepository;
+
+	@Autowired
+	EntityManager entityManager;
+
+	Long courseWithRosterId;
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < COURSES; i++) {
+			Course course = Course.builder()
+					.title("course" + i)
+					.credit(i)
+					.teacher(Teacher.builder().firstName("teacher" + i).lastName("last" + i).build())
+					.build();
+			course.addStudent(Student.builder()
+					.firstName("student" + i)
+					.emailId("student" + i + "@example.com")
+					.guardian(new Guardian("guardian", "guardian@example.com", "555"))
+					.build());
+			courseMaterialRepository.save(CourseMaterial.builder().url("url" + i).course(course).build());
+			courseWithRosterId = course.getCourseId();
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	@DisplayName("Catalog list loads courses, teachers and materials in one statement")
+	void givenCatalogListPlan_whenListingCourses_thenSingleStatement() {
+		List<Course> courses = assertStatementBudget(1, () -> {
+			List<Course> result = courseRepository.findAll(CourseFetchPlan.CATALOG_LIST);
+			result.forEach(course -> {
+				course.getTeacher().getFirstName();
+				course.getCourseMaterial().getUrl();
+			});
+			return result;
+		});
+
+		assertThat(courses).hasSize(COURSES);
+	}
+
+	@Test
+	@DisplayName("Course detail loads the roster in the same statement")
+	void givenDetailPlan_whenLoadingCourse_thenSingleStatement() {
+		Course course = assertStatementBudget(1, () -> {
+			Course result = courseRepository.findById(courseWithRosterId, CourseFetchPlan.DETAIL_WITH_ROSTER).orElseThrow();
+			result.getStudentList().size();
+			return result;
+		});
+
+		assertThat(course.getStudentList()).hasSize(1);
+	}
+
+	@Test
+	@DisplayName("Plain findAll fires extra selects per course")
+	void givenNoPlan_whenListingCourses_thenNPlusOne() {
+		int statements = count(() -> courseRepository.findAll().forEach(course -> course.getTeacher().getFirstName()));
+
+		assertThat(statements).isGreaterThan(1);
+	}
+}
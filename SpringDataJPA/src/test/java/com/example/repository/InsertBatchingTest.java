@@ -0,0 +1,83 @@
+package com.example.repository;
+
+import com.example.model.Course;
+import com.example.model.CourseMaterial;
+import com.example.model.Teacher;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//runs with the settings from application.properties: pooled-lo ids + JDBC batching + ordered inserts
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class InsertBatchingTest {
+
+	static final int ROWS = 200;
+	static final int BATCH_SIZE = 50;
+	//allocationSize of the Course and CourseMaterial generators; Teacher uses 20
+	static final int ALLOCATION_SIZE = 50;
+
+	@Autowired
+	CourseRepository courseRepository;
+
+	@Autowired
+	CourseMaterialRepository courseMaterialRepository;
+
+	@Autowired
+	EntityManager entityManager;
+
+	Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	@DisplayName("saveAll sends the courses in JDBC batches with one nextval per id block")
+	void givenManyCourses_whenSaveAll_thenBatchedInserts() {
+		List<Course> courses = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			courses.add(Course.builder().title("course" + i).credit(i % 10).build());
+		}
+
+		courseRepository.saveAll(courses);
+		entityManager.flush();
+
+		//one statement per insert batch, one per block of 50 ids, plus one for the first block
+		long budget = ROWS / BATCH_SIZE + ROWS / ALLOCATION_SIZE + 1;
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(budget);
+	}
+
+	@Test
+	@DisplayName("Cascaded saves are grouped per table, so they batch too")
+	void givenMaterialsWithNewCourses_whenSaved_thenBatchedPerTable() {
+		for (int i = 0; i < ROWS; i++) {
+			courseMaterialRepository.save(CourseMaterial.builder()
+					.url("url" + i)
+					.course(Course.builder()
+							.title("course" + i)
+							.credit(i % 10)
+							.teacher(Teacher.builder().firstName("first" + i).lastName("last" + i).build())
+							.build())
+					.build());
+		}
+		entityManager.flush();
+
+		long inserts = 3 * ROWS / BATCH_SIZE;
+		long sequenceCalls = 2 * (ROWS / ALLOCATION_SIZE) + ROWS / 20 + 3;
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(3 * ROWS);
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(inserts + sequenceCalls);
+	}
+}
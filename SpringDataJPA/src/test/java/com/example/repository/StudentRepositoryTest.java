@@ -17,7 +17,12 @@ public class StudentRepositoryTest {
 	@DisplayName("Find student by id")
 	void givenStudentID_whenQuery_thenGetStudentObject() {
 		//Given
-		studentRepository.save(new Student("Adam", "Grant", "Email", new Guardian("SSSS", "SSSS", "SSSS")));
+		studentRepository.save(Student.builder()
+				.firstName("Adam")
+				.lastName("Grant")
+				.emailId("Email")
+				.guardian(new Guardian("SSSS", "SSSS", "SSSS"))
+				.build());
 		Student student = studentRepository.getReferenceById(1L);
 	}
 }
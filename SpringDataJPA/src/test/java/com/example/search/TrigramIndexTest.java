@@ -0,0 +1,33 @@
+package com.example.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+	@Test
+	void findsSubstringsRankedByMatchPosition() {
+		TrigramIndex index = new TrigramIndex();
+		index.put(1, "Adam Grant");
+		index.put(2, "Grantham Smith");
+		index.put(3, "Edward Nowak");
+
+		assertThat(index.search("GRANT", 10)).containsExactly(2L, 1L);
+		assertThat(index.search("ow", 10)).containsExactly(3L);
+		assertThat(index.search("xyz", 10)).isEmpty();
+	}
+
+	@Test
+	void updatesAndRemovalsAreReflected() {
+		TrigramIndex index = new TrigramIndex();
+		index.put(1, "Adam Grant");
+		index.put(1, "Adam Smith");
+		index.put(2, "John Smith");
+		index.remove(2);
+
+		assertThat(index.search("grant", 10)).isEmpty();
+		assertThat(index.search("smith", 10)).containsExactly(1L);
+		assertThat(index.size()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,117 @@
+package com.example.service;
+
+import com.example.model.Course;
+import com.example.repository.CourseRepository;
+import com.example.service.CourseCatalogService.CourseOrder;
+import com.example.service.CourseCatalogService.CourseSlice;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Import(CourseCatalogService.class)
+class CourseCatalogServiceTest {
+
+	@Autowired
+	CourseCatalogService catalogService;
+
+	@Autowired
+	CourseRepository courseRepository;
+
+	@Autowired
+	EntityManager entityManager;
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < 7; i++) {
+			courseRepository.save(Course.builder().title("course" + i).credit(i % 3).build());
+		}
+		//control characters in the title must survive the token encoding
+		courseRepository.save(Course.builder().title("course\u001Fseparated").credit(1).build());
+		courseRepository.save(Course.builder().title("course without credit").build());
+		courseRepository.save(Course.builder().credit(5).build());
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	@DisplayName("Paging by credit skips courses without one and never repeats or drops a course")
+	void givenNullCredits_whenPagingByCredit_thenEveryCourseWithCreditOnce() {
+		List<Course> seen = pageThrough("course", CourseOrder.CREDIT, 2);
+
+		assertThat(seen).extracting(Course::getCredit).isSorted().doesNotContainNull();
+		assertThat(seen).extracting(Course::getTitle)
+				.doesNotHaveDuplicates()
+				.hasSize(8)
+				.doesNotContain("course without credit");
+	}
+
+	@Test
+	@DisplayName("Titles containing control characters round-trip through the token")
+	void givenControlCharacterInTitle_whenPagingByTitle_thenAllPagesDecode() {
+		List<Course> seen = pageThrough("", CourseOrder.TITLE, 1);
+
+		assertThat(seen).extracting(Course::getTitle)
+				.isSorted()
+				.contains("course\u001Fseparated")
+				.hasSize(9);
+	}
+
+	@Test
+	@DisplayName("The filter travels in the token, control characters included")
+	void givenFilterWithControlCharacter_whenNextPage_thenFilterIsKept() {
+		CourseSlice first = catalogService.firstPage("\u001F", CourseOrder.TITLE, 1);
+
+		assertThat(first.content()).extracting(Course::getTitle).containsExactly("course\u001Fseparated");
+		assertThat(first.hasNext()).isFalse();
+	}
+
+	@Test
+	void givenMalformedToken_whenNextPage_thenIllegalArgument() {
+		CourseSlice first = catalogService.firstPage("", CourseOrder.CREDIT, 1);
+		String truncated = first.nextToken().substring(0, first.nextToken().length() - 3);
+
+		assertThatThrownBy(() -> catalogService.nextPage("not base64!", 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> catalogService.nextPage(truncated, 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> catalogService.nextPage(Base64.getUrlEncoder().encodeToString("null".getBytes()), 1))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void givenSameFilter_whenCountedTwiceWithinTtl_thenOneCountQuery() {
+		CourseRepository repository = mock(CourseRepository.class);
+		when(repository.countByTitleContaining("course")).thenReturn(42L);
+		CourseCatalogService service = new CourseCatalogService(repository, Duration.ofMinutes(1), 10);
+
+		assertThat(service.approximateTotal("course")).isEqualTo(42);
+		assertThat(service.approximateTotal("course")).isEqualTo(42);
+		verify(repository, times(1)).countByTitleContaining("course");
+	}
+
+	private List<Course> pageThrough(String title, CourseOrder order, int size) {
+		List<Course> seen = new ArrayList<>();
+		CourseSlice slice = catalogService.firstPage(title, order, size);
+		seen.addAll(slice.content());
+		while (slice.hasNext()) {
+			slice = catalogService.nextPage(slice.nextToken(), size);
+			seen.addAll(slice.content());
+		}
+		return seen;
+	}
+}
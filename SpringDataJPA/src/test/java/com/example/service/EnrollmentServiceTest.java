@@ -0,0 +1,102 @@
+package com.example.service;
+
+import com.example.model.Course;
+import com.example.model.Student;
+import com.example.repository.CourseFetchPlan;
+import com.example.repository.CourseRepository;
+import com.example.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static com.example.support.SqlStatementCounter.count;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.support.SqlStatementCounter",
+		"enrollment.ids-per-statement=2"
+})
+@Import(EnrollmentService.class)
+class EnrollmentServiceTest {
+
+	static final int ROSTER = 50;
+
+	@Autowired
+	EnrollmentService enrollmentService;
+
+	@Autowired
+	CourseRepository courseRepository;
+
+	@Autowired
+	StudentRepository studentRepository;
+
+	@Autowired
+	EntityManager entityManager;
+
+	Long courseId;
+	List<Long> enrolledIds;
+	List<Long> newIds;
+
+	@BeforeEach
+	void setUp() {
+		Course course = Course.builder().title("Algorithms").credit(6).build();
+		for (int i = 0; i < ROSTER; i++) {
+			course.addStudent(student("enrolled" + i));
+		}
+		courseId = courseRepository.save(course).getCourseId();
+		enrolledIds = course.getStudentList().stream().map(Student::getStudentId).toList();
+		newIds = studentRepository.saveAll(List.of(student("new0"), student("new1"), student("new2")))
+				.stream().map(Student::getStudentId).toList();
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	@DisplayName("Enrolling by id only inserts the missing join rows")
+	void givenPartlyEnrolledIds_whenEnrolling_thenOnlyMissingRowsInserted() {
+		int inserted = enrollmentService.enroll(courseId, List.of(enrolledIds.get(0), enrolledIds.get(1), newIds.get(0), newIds.get(1), newIds.get(1)));
+
+		assertThat(inserted).isEqualTo(2);
+		assertThat(roster()).hasSize(ROSTER + 2);
+	}
+
+	@Test
+	@DisplayName("Unenrolling by id only deletes the present join rows")
+	void givenMixedIds_whenUnenrolling_thenOnlyPresentRowsDeleted() {
+		int deleted = enrollmentService.unenroll(courseId, List.of(enrolledIds.get(0), enrolledIds.get(1), enrolledIds.get(2), newIds.get(0)));
+
+		assertThat(deleted).isEqualTo(3);
+		assertThat(roster()).hasSize(ROSTER - 3);
+	}
+
+	@Test
+	@DisplayName("Adding a student to a loaded roster writes one join row")
+	void givenLoadedRoster_whenAddingStudent_thenSingleInsert() {
+		Course course = courseRepository.findById(courseId, CourseFetchPlan.DETAIL_WITH_ROSTER).orElseThrow();
+		Student student = studentRepository.findById(newIds.get(2)).orElseThrow();
+
+		int statements = count(() -> {
+			course.addStudent(student);
+			entityManager.flush();
+		});
+
+		assertThat(statements).isEqualTo(1);
+		entityManager.clear();
+		assertThat(roster()).hasSize(ROSTER + 1);
+	}
+
+	private List<Student> roster() {
+		entityManager.clear();
+		return List.copyOf(courseRepository.findById(courseId, CourseFetchPlan.DETAIL_WITH_ROSTER).orElseThrow().getStudentList());
+	}
+
+	private static Student student(String name) {
+		return Student.builder().firstName(name).emailId(name + "@example.com").build();
+	}
+}
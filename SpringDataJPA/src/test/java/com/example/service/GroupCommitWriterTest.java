@@ -0,0 +1,143 @@
+package com.example.service;
+
+import com.example.model.Student;
+import com.example.repository.StudentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnitUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+//the writer commits on its own thread, so the test doesn't wrap a transaction around it
+@DataJpaTest(properties = {"app.group-commit.enabled=true", "app.group-commit.max-batch=50", "app.group-commit.max-delay=200ms"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({GroupCommitWriter.class, GroupCommitWriterTest.Metrics.class})
+class GroupCommitWriterTest {
+
+	@TestConfiguration
+	static class Metrics {
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+
+	@Autowired
+	GroupCommitWriter groupCommitWriter;
+
+	@Autowired
+	StudentRepository studentRepository;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@AfterEach
+	void tearDown() {
+		studentRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Saves arriving inside the window share one commit and each caller gets its own id")
+	void givenConcurrentSaves_whenWindowCloses_thenOneCommit() {
+		double commitsBefore = meterRegistry.counter("groupcommit.commits").count();
+		List<Student> students = new ArrayList<>();
+		List<CompletableFuture<Object>> ids = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			Student student = Student.builder().firstName("name" + i).emailId("student" + i + "@example.com").build();
+			students.add(student);
+			ids.add(groupCommitWriter.save(student));
+		}
+
+		for (int i = 0; i < 20; i++) {
+			assertThat(ids.get(i).join()).isEqualTo(students.get(i).getStudentId());
+		}
+		assertThat(ids.stream().map(CompletableFuture::join).distinct()).hasSize(20);
+		assertThat(studentRepository.count()).isEqualTo(20);
+		assertThat(meterRegistry.counter("groupcommit.commits").count() - commitsBefore).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("A failing entity fails alone, the rest of its group is still written")
+	void givenDuplicateInGroup_whenCommitFails_thenOnlyDuplicateFails() {
+		studentRepository.save(Student.builder().firstName("Ann").emailId("ann@example.com").build());
+
+		CompletableFuture<Object> bob = groupCommitWriter.save(Student.builder().firstName("Bob").emailId("bob@example.com").build());
+		CompletableFuture<Object> duplicate = groupCommitWriter.save(Student.builder().firstName("Ann").emailId("ann@example.com").build());
+		CompletableFuture<Object> cid = groupCommitWriter.save(Student.builder().firstName("Cid").emailId("cid@example.com").build());
+
+		assertThat(bob.join()).isNotNull();
+		assertThat(cid.join()).isNotNull();
+		assertThatThrownBy(duplicate::join)
+				.isInstanceOf(CompletionException.class)
+				.hasCauseInstanceOf(DataIntegrityViolationException.class);
+		assertThat(studentRepository.count()).isEqualTo(3);
+	}
+
+	@Test
+	@DisplayName("An Error from one group fails that group only, the flusher keeps writing")
+	void givenErrorInGroup_whenNextSave_thenStillWritten() throws Exception {
+		EntityManager entityManager = mockEntityManager();
+		when(entityManager.merge(any())).thenThrow(new AssertionError("boom")).thenAnswer(invocation -> invocation.getArgument(0));
+		GroupCommitWriter writer = mockedWriter(entityManager);
+		try {
+			assertThatThrownBy(writer.save("first")::join).hasCauseInstanceOf(AssertionError.class);
+			assertThat(writer.save("second").join()).isEqualTo("second");
+		} finally {
+			writer.destroy();
+		}
+	}
+
+	@Test
+	@DisplayName("Saves after shutdown are rejected instead of left pending")
+	void givenDestroyedWriter_whenSave_thenRejected() throws Exception {
+		GroupCommitWriter writer = mockedWriter(mockEntityManager());
+		writer.destroy();
+
+		assertThatThrownBy(writer.save("late")::join).hasCauseInstanceOf(RejectedExecutionException.class);
+	}
+
+	//entities that already have an id (their own value), so the writer merges them
+	private static EntityManager mockEntityManager() {
+		EntityManager entityManager = mock(EntityManager.class);
+		EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+		PersistenceUnitUtil persistenceUnitUtil = mock(PersistenceUnitUtil.class);
+		when(entityManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+		when(entityManagerFactory.getPersistenceUnitUtil()).thenReturn(persistenceUnitUtil);
+		when(persistenceUnitUtil.getIdentifier(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		return entityManager;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static GroupCommitWriter mockedWriter(EntityManager entityManager) {
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+		return new GroupCommitWriter(entityManager, transactionManager, mock(ObjectProvider.class), 50, Duration.ofMillis(5), 100);
+	}
+}
@@ -0,0 +1,72 @@
+package com.example.service;
+
+import com.example.model.Student;
+import com.example.repository.StudentRepository;
+import com.example.service.StudentNameBatchUpdater.NameChange;
+import com.example.service.StudentNameBatchUpdater.NameChangeResult;
+import com.example.service.StudentNameBatchUpdater.Outcome;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = "students.name-update.chunk-size=2")
+@Import(StudentNameBatchUpdater.class)
+class StudentNameBatchUpdaterTest {
+
+	@Autowired
+	StudentNameBatchUpdater studentNameBatchUpdater;
+
+	@Autowired
+	StudentRepository studentRepository;
+
+	@Autowired
+	EntityManager entityManager;
+
+	@BeforeEach
+	void setUp() {
+		studentRepository.saveAll(List.of(
+				Student.builder().firstName("Ann").emailId("ann@example.com").build(),
+				Student.builder().firstName("Bob").emailId("bob@example.com").build(),
+				Student.builder().firstName("Cid").emailId("cid@example.com").build()));
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	@DisplayName("Every email gets its own outcome, in input order")
+	void givenMixedChanges_whenUpdating_thenPerKeyOutcomes() {
+		List<NameChangeResult> results = studentNameBatchUpdater.updateFirstNames(List.of(
+				new NameChange("ann@example.com", "Anna"),
+				new NameChange("bob@example.com", "Bob"),
+				new NameChange("nobody@example.com", "Nobody"),
+				new NameChange("cid@example.com", "C"),
+				new NameChange("cid@example.com", "Cyd")));
+
+		assertThat(results).extracting(NameChangeResult::emailId, NameChangeResult::outcome).containsExactly(
+				tuple("ann@example.com", Outcome.UPDATED),
+				tuple("bob@example.com", Outcome.UNCHANGED),
+				tuple("nobody@example.com", Outcome.NOT_FOUND),
+				tuple("cid@example.com", Outcome.UPDATED));
+		entityManager.clear();
+		assertThat(studentRepository.getStudentFirstNameByEmailAddress("cid@example.com")).isEqualTo("Cyd");
+	}
+
+	@Test
+	@DisplayName("Students already loaded in the persistence context see the new name")
+	void givenLoadedStudent_whenUpdating_thenEntityRefreshed() {
+		Student ann = studentRepository.getStudentByEmailAddress("ann@example.com");
+
+		studentNameBatchUpdater.updateFirstNames(List.of(new NameChange("ann@example.com", "Anna")));
+
+		assertThat(ann.getFirstName()).isEqualTo("Anna");
+	}
+}
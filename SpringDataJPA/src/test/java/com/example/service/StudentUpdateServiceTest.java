@@ -0,0 +1,98 @@
+package com.example.service;
+
+import com.example.model.Student;
+import com.example.repository.StudentRepository;
+import com.example.service.StudentUpdateService.UpdateResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+//the service runs its own transactions, so the test doesn't wrap one around it
+@DataJpaTest(properties = {"students.update.max-attempts=3", "students.update.backoff=1ms"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(StudentUpdateService.class)
+class StudentUpdateServiceTest {
+
+	@Autowired
+	StudentUpdateService studentUpdateService;
+
+	@Autowired
+	StudentRepository studentRepository;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	void setUp() {
+		studentRepository.save(Student.builder().firstName("Ann").lastName("Lee").emailId("ann@example.com").build());
+	}
+
+	@AfterEach
+	void tearDown() {
+		studentRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("A writer that loses to a concurrent commit re-reads and applies its change on top")
+	void givenConcurrentCommit_whenUpdating_thenRetriedOnFreshRow() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		UpdateResult result = studentUpdateService.update("ann@example.com", student -> {
+			if (attempts.incrementAndGet() == 1) {
+				concurrentWriter().executeWithoutResult(status -> studentRepository.updateStudentNameByEmailId("Anna", "ann@example.com"));
+			}
+			student.setLastName("Smith");
+		});
+
+		assertThat(result.attempts()).isEqualTo(2);
+		Student stored = studentRepository.getStudentByEmailAddress("ann@example.com");
+		assertThat(stored.getFirstName()).isEqualTo("Anna");
+		assertThat(stored.getLastName()).isEqualTo("Smith");
+		assertThat(stored.getVersion()).isEqualTo(2L);
+	}
+
+	@Test
+	@DisplayName("Conflicts on every attempt end in the optimistic locking failure")
+	void givenConflictOnEveryAttempt_whenUpdating_thenGivesUp() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThatThrownBy(() -> studentUpdateService.update("ann@example.com", student -> {
+			attempts.incrementAndGet();
+			concurrentWriter().executeWithoutResult(status -> studentRepository.updateStudentNameByEmailId("Ann" + attempts, "ann@example.com"));
+			student.setLastName("Smith");
+		})).isInstanceOf(OptimisticLockingFailureException.class);
+
+		assertThat(attempts).hasValue(3);
+		assertThat(studentRepository.getStudentByEmailAddress("ann@example.com").getLastName()).isEqualTo("Lee");
+	}
+
+	@Test
+	@DisplayName("The locked path reads the row FOR UPDATE and bumps the version once")
+	void givenNoContention_whenUpdatingLocked_thenSingleAttempt() {
+		UpdateResult result = studentUpdateService.updateLocked("ann@example.com", student -> student.setFirstName("Anna"));
+
+		assertThat(result.attempts()).isEqualTo(1);
+		assertThat(studentRepository.getStudentByEmailAddress("ann@example.com").getVersion()).isEqualTo(1L);
+	}
+
+	private TransactionTemplate concurrentWriter() {
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		return template;
+	}
+}
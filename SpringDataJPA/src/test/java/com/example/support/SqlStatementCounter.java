@@ -0,0 +1,48 @@
+package com.example.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ * Register it in a test with
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.support.SqlStatementCounter
+ * and wrap repository calls in {@link #assertStatementBudget}.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+	private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+	@Override
+	public String inspect(String sql) {
+		STATEMENTS.get().add(sql);
+		return sql;
+	}
+
+	//runs the call (touch the associations you need inside it) and fails when it issued more than `budget` statements
+	public static <T> T assertStatementBudget(int budget, Supplier<T> call) {
+		List<String> statements = STATEMENTS.get();
+		statements.clear();
+		T result = call.get();
+		if (statements.size() > budget) {
+			fail("Expected at most %d statement(s) but %d were issued:%n%s",
+					budget, statements.size(), String.join(System.lineSeparator(), statements));
+		}
+		statements.clear();
+		return result;
+	}
+
+	public static int count(Runnable call) {
+		List<String> statements = STATEMENTS.get();
+		statements.clear();
+		call.run();
+		int count = statements.size();
+		statements.clear();
+		return count;
+	}
+}